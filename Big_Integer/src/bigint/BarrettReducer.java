@@ -0,0 +1,52 @@
+package bigint;
+
+/**
+ * This class reduces integers modulo a fixed modulus with Barrett's method. The
+ * reciprocal mu = floor(BASE^(2k) / m) is computed once, after which every
+ * reduction costs two multiplications and no division.
+ *
+ */
+class BarrettReducer {
+
+    /**
+     * The modulus, and its length k in limbs
+     */
+    final BigInteger modulus;
+    final int k;
+
+    /**
+     * floor(BASE^(2k) / modulus)
+     */
+    final BigInteger mu;
+
+    /**
+     * Prepares reductions modulo a positive modulus.
+     *
+     * @param modulus Modulus, must be positive
+     */
+    BarrettReducer(BigInteger modulus) {
+        this.modulus = modulus;
+        this.k = modulus.length;
+        this.mu = Divider.divideAndRemainder(Divider.shiftLeft(BigInteger.ONE, 2 * k), modulus)[0];
+    }
+
+    /**
+     * Returns x mod modulus, for 0 <= x < BASE^(2k), which covers the product of
+     * any two reduced values.
+     */
+    BigInteger reduce(BigInteger x) {
+        if (x.length < k) {
+            return x;
+        }
+
+        // q estimates x / modulus from below, by at most 2
+        BigInteger q = Divider.shiftRight(BigInteger.product(Divider.shiftRight(x, k - 1), mu), k + 1);
+        BigInteger r = BigInteger.difference(x, BigInteger.product(q, modulus));
+
+        while (BigInteger.compareMagnitudes(r.limbs, r.length, modulus.limbs, modulus.length) >= 0) {
+            r = BigInteger.difference(r, modulus);
+        }
+
+        return r;
+    }
+}
@@ -0,0 +1,268 @@
+package bigint;
+
+/**
+ * This class is a mutable running total of BigIntegers. Sums and products are
+ * added into one limb buffer that only grows when the total gets longer, so
+ * summing a column of values allocates nothing per value. An immutable
+ * BigInteger is created only when toBigInteger is called.
+ *
+ * An accumulator is not thread-safe; use one per thread and add the partial
+ * totals at the end.
+ *
+ */
+public class BigAccumulator {
+
+    private static final int BASE = BigInteger.BASE;
+
+    /**
+     * Limbs of the total's magnitude, least significant first. Every limb past
+     * length is zero.
+     */
+    private int[] limbs;
+    private int length;
+    private boolean negative;
+
+    /**
+     * Reusable buffer for products that are subtracted rather than added
+     */
+    private int[] scratch = new int[0];
+
+    /**
+     * Initializes an accumulator holding zero.
+     */
+    public BigAccumulator() {
+        this(4);
+    }
+
+    /**
+     * Initializes an accumulator holding zero, with room for the given number of
+     * decimal digits before its buffer has to grow.
+     *
+     * @param digits Expected number of digits of the total
+     */
+    public BigAccumulator(int digits) {
+        limbs = new int[digits / BigInteger.BASE_DIGITS + 2];
+    }
+
+    /**
+     * Adds an integer to the total.
+     *
+     * @param value Integer to add
+     * @return This accumulator
+     */
+    public BigAccumulator addInPlace(BigInteger value) {
+        add(value.limbs, value.length, value.negative);
+        return this;
+    }
+
+    /**
+     * Subtracts an integer from the total.
+     *
+     * @param value Integer to subtract
+     * @return This accumulator
+     */
+    public BigAccumulator subtractInPlace(BigInteger value) {
+        add(value.limbs, value.length, !value.negative);
+        return this;
+    }
+
+    /**
+     * Adds value * multiplier to the total without creating the product.
+     *
+     * @param value      Integer to multiply
+     * @param multiplier Multiplier, may be negative
+     * @return This accumulator
+     */
+    public BigAccumulator multiplyAddInPlace(BigInteger value, int multiplier) {
+        long m = Math.abs((long) multiplier);
+        boolean sign = value.negative != (multiplier < 0);
+
+        if (value.length == 0 || m == 0) {
+            return this;
+        }
+
+        if (length == 0 || sign == negative) {
+            // fused pass: t < 10^9 * 2^31 + 2 * 10^9 * 2^31 fits in a long
+            ensureCapacity(Math.max(length, value.length + 1) + 1);
+            long carry = 0;
+            int i = 0;
+
+            for (; i < value.length; i++) {
+                long t = value.limbs[i] * m + limbs[i] + carry;
+                carry = t / BASE;
+                limbs[i] = (int) (t - carry * BASE);
+            }
+
+            for (; carry != 0; i++) {
+                long t = limbs[i] + carry;
+                carry = t / BASE;
+                limbs[i] = (int) (t - carry * BASE);
+            }
+
+            length = Math.max(length, i);
+            negative = sign;
+            return this;
+        }
+
+        int plen = value.length + 2;
+        int[] product = scratch(plen);
+        long carry = 0;
+
+        for (int i = 0; i < value.length; i++) {
+            long t = value.limbs[i] * m + carry;
+            carry = t / BASE;
+            product[i] = (int) (t - carry * BASE);
+        }
+
+        product[value.length] = (int) (carry % BASE);
+        product[value.length + 1] = (int) (carry / BASE);
+        add(product, plen, sign);
+        return this;
+    }
+
+    /**
+     * Adds first * second to the total. Short products are accumulated straight
+     * into the buffer; long ones are computed with Multiplier first.
+     *
+     * @param first  First factor
+     * @param second Second factor
+     * @return This accumulator
+     */
+    public BigAccumulator multiplyAddInPlace(BigInteger first, BigInteger second) {
+        boolean sign = first.negative != second.negative;
+        int plen = first.length + second.length;
+
+        if (first.length == 0 || second.length == 0) {
+            return this;
+        }
+
+        if (Math.min(first.length, second.length) >= Multiplier.KARATSUBA_THRESHOLD) {
+            add(Multiplier.multiply(first.limbs, first.length, second.limbs, second.length), plen, sign);
+            return this;
+        }
+
+        if (length == 0 || sign == negative) {
+            ensureCapacity(Math.max(length, plen) + 1);
+            Multiplier.schoolbook(first.limbs, 0, first.length, second.limbs, 0, second.length, limbs, 0);
+            length = significant(limbs, Math.max(length, plen) + 1);
+            negative = sign;
+            return this;
+        }
+
+        int[] product = scratch(plen);
+        Multiplier.schoolbook(first.limbs, 0, first.length, second.limbs, 0, second.length, product, 0);
+        add(product, plen, sign);
+        return this;
+    }
+
+    /**
+     * Returns the total as an immutable BigInteger. The accumulator can keep
+     * being used afterwards.
+     *
+     * @return Current total
+     */
+    public BigInteger toBigInteger() {
+        int[] copy = new int[length];
+        System.arraycopy(limbs, 0, copy, 0, length);
+        return new BigInteger(negative, copy, length);
+    }
+
+    /**
+     * Sets the total back to zero, keeping the buffer.
+     */
+    public void reset() {
+        java.util.Arrays.fill(limbs, 0, length, 0);
+        length = 0;
+        negative = false;
+    }
+
+    /**
+     * Adds a signed magnitude x[0 .. xlen) to the total in place.
+     */
+    private void add(int[] x, int xlen, boolean xnegative) {
+        xlen = significant(x, xlen);
+
+        if (xlen == 0) {
+            return;
+        }
+
+        if (length == 0 || xnegative == negative) {
+            ensureCapacity(Math.max(length, xlen) + 1);
+            Multiplier.addInto(limbs, 0, x, xlen);
+            length = Math.max(length, xlen);
+
+            if (limbs[length] != 0) {
+                length++;
+            }
+
+            negative = xnegative;
+            return;
+        }
+
+        int borrow = 0;
+
+        if (BigInteger.compareMagnitudes(limbs, length, x, xlen) >= 0) {
+            // |total| - |x|, the sign stays
+            int i = 0;
+
+            for (; i < xlen; i++) {
+                int d = limbs[i] - x[i] - borrow;
+                borrow = d < 0 ? 1 : 0;
+                limbs[i] = d + borrow * BASE;
+            }
+
+            for (; borrow != 0; i++) {
+                int d = limbs[i] - borrow;
+                borrow = d < 0 ? 1 : 0;
+                limbs[i] = d + borrow * BASE;
+            }
+        } else {
+            // |x| - |total|, the sign flips
+            ensureCapacity(xlen);
+
+            for (int i = 0; i < xlen; i++) {
+                int d = x[i] - limbs[i] - borrow;
+                borrow = d < 0 ? 1 : 0;
+                limbs[i] = d + borrow * BASE;
+            }
+
+            length = xlen;
+            negative = xnegative;
+        }
+
+        length = significant(limbs, length);
+
+        if (length == 0) {
+            negative = false;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (limbs.length < capacity) {
+            int[] grown = new int[Math.max(capacity, limbs.length * 2)];
+            System.arraycopy(limbs, 0, grown, 0, length);
+            limbs = grown;
+        }
+    }
+
+    /**
+     * Returns the scratch buffer cleared to at least the given length.
+     */
+    private int[] scratch(int capacity) {
+        if (scratch.length < capacity) {
+            scratch = new int[Math.max(capacity, scratch.length * 2)];
+        } else {
+            java.util.Arrays.fill(scratch, 0, capacity, 0);
+        }
+
+        return scratch;
+    }
+
+    private static int significant(int[] x, int len) {
+        while (len > 0 && x[len - 1] == 0) {
+            len--;
+        }
+
+        return len;
+    }
+}
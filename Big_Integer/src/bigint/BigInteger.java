@@ -1,17 +1,42 @@
 package bigint;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * This class encapsulates a BigInteger, i.e. a positive or negative integer
  * with any number of digits, which overcomes the computer storage length
  * limitation of an integer.
- * 
+ *
  */
-public class BigInteger {
+public class BigInteger implements Comparable<BigInteger> {
 
     enum COMPARISON {
         FIRST_BIGGER, SECOND_BIGGER, EQUAL
     }
 
+    /**
+     * Radix of a single limb. Each limb holds nine decimal digits, so parsing and
+     * printing never need any base conversion.
+     */
+    static final int BASE = 1000000000;
+
+    /**
+     * Number of decimal digits held by a full limb
+     */
+    static final int BASE_DIGITS = 9;
+
+    /**
+     * TEN_POWERS[i] is 10^i, for every power of ten that fits in a limb
+     */
+    static final int[] TEN_POWERS = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000 };
+
+    /**
+     * Smallest number of limbs that parallelParse converts as a separate task
+     */
+    static final int PARSE_CHUNK = 1 << 14;
+
     /**
      * True if this is a negative integer
      */
@@ -23,14 +48,51 @@ public class BigInteger {
     int numDigits;
 
     /**
-     * Reference to the first node of this integer's linked list representation
-     * NOTE: The linked list stores the Least Significant Digit in the FIRST node.
-     * For instance, the integer 235 would be stored as: 5 --> 3 --> 2
-     * 
-     * Insignificant digits are not stored. So the integer 00235 will be stored as:
-     * 5 --> 3 --> 2 (No zeros after the last 2)
+     * Limbs of this integer's magnitude, in base 10^9. NOTE: The array stores the
+     * Least Significant limb FIRST. For instance, the integer 1234567890123 would
+     * be stored as: [567890123, 1234]
+     *
+     * Insignificant limbs are not counted. So limbs[length - 1] is never zero, and
+     * the array may have unused capacity after it.
+     */
+    int[] limbs;
+
+    /**
+     * Number of limbs in use. Zero has no limbs at all.
+     */
+    int length;
+
+    /**
+     * Cached hash code, computed on the first call to hashCode. Zero until then,
+     * unless hashIsZero says the hash really is zero.
+     */
+    private int hash;
+
+    private boolean hashIsZero;
+
+    /**
+     * Smallest and largest values that valueOf and parse return as shared
+     * instances. A BigInteger is never modified once built, so sharing is safe.
+     */
+    static final int CACHE_LOW = -128, CACHE_HIGH = 1024;
+
+    private static final BigInteger[] CACHE = new BigInteger[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int value = CACHE_LOW; value <= CACHE_HIGH; value++) {
+            CACHE[value - CACHE_LOW] = new BigInteger(value < 0, new int[] { Math.abs(value) }, 1);
+        }
+    }
+
+    /**
+     * The integer 0
      */
-    DigitNode front;
+    public static final BigInteger ZERO = CACHE[-CACHE_LOW];
+
+    /**
+     * The integer 1
+     */
+    public static final BigInteger ONE = CACHE[1 - CACHE_LOW];
 
     /**
      * Initializes this integer to a positive number with zero digits, in other
@@ -39,7 +101,27 @@ public class BigInteger {
     public BigInteger() {
         negative = false;
         numDigits = 0;
-        front = null;
+        limbs = new int[0];
+        length = 0;
+    }
+
+    /**
+     * Initializes this integer from a limb array, dropping insignificant limbs. A
+     * zero magnitude is never negative.
+     *
+     * @param negative True if the integer is negative
+     * @param limbs    Limbs, least significant first. The array is not copied.
+     * @param length   Number of limbs of the array that hold the magnitude
+     */
+    BigInteger(boolean negative, int[] limbs, int length) {
+        while (length > 0 && limbs[length - 1] == 0) {
+            length--;
+        }
+
+        this.limbs = limbs;
+        this.length = length;
+        this.negative = negative && length > 0;
+        this.numDigits = length == 0 ? 0 : (length - 1) * BASE_DIGITS + digitCount(limbs[length - 1]);
     }
 
     /**
@@ -49,24 +131,107 @@ public class BigInteger {
      * (including zero). Examples of correct format, with corresponding values
      * Format Value +0 0 -0 0 +123 123 1023 1023 0012 12 0 0 -123 -123 -001 -1 +000
      * 0
-     * 
+     *
      * Leading and trailing spaces are ignored. So " +123 " will still parse
      * correctly, as +123, after ignoring leading and trailing spaces in the input
      * string.
-     * 
+     *
      * Spaces between digits are not ignored. So "12 345" will not parse as an
      * integer - the input is incorrectly formatted.
-     * 
-     * An integer with value 0 will correspond to a null (empty) list - see the
-     * BigInteger constructor
-     * 
+     *
+     * An integer with value 0 will have no limbs - see the BigInteger constructor
+     *
      * @param integer Integer string that is to be parsed
      * @return BigInteger instance that stores the input integer.
      * @throws IllegalArgumentException If input is incorrectly formatted
      */
     public static BigInteger parse(String integer) throws IllegalArgumentException {
-        BigInteger BI = new BigInteger();
-        boolean nonZeroDigitFound = false;
+        if (!BigIntegerMetrics.ENABLED) {
+            return parseDigits(integer);
+        }
+
+        BigIntegerMetrics.Probe probe = BigIntegerMetrics.start(BigIntegerMetrics.Operation.PARSE,
+                (integer.length() + BASE_DIGITS - 1) / BASE_DIGITS);
+
+        try {
+            return parseDigits(integer);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Returns a BigInteger with the value of a long. Values from CACHE_LOW to
+     * CACHE_HIGH come from a table and are not allocated.
+     *
+     * @param value Value of the integer
+     * @return BigInteger equal to value
+     */
+    public static BigInteger valueOf(long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return CACHE[(int) value - CACHE_LOW];
+        }
+
+        // work on -|value|, so Long.MIN_VALUE needs no special case
+        long rest = value < 0 ? value : -value;
+        int[] limbs = new int[3];
+
+        for (int i = 0; rest != 0; i++) {
+            limbs[i] = (int) -(rest % BASE);
+            rest /= BASE;
+        }
+
+        return new BigInteger(value < 0, limbs, limbs.length);
+    }
+
+    /**
+     * Parses an integer string like parse, converting chunks of the digits to
+     * limbs in parallel on the common ForkJoinPool.
+     *
+     * @param integer Integer string that is to be parsed
+     * @return BigInteger instance that stores the input integer.
+     * @throws IllegalArgumentException If input is incorrectly formatted
+     */
+    public static BigInteger parallelParse(String integer) throws IllegalArgumentException {
+        return parallelParse(integer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses an integer string like parse, converting chunks of the digits to
+     * limbs in parallel on the given pool. Each limb holds nine digits counted
+     * from the end of the string, so every chunk of PARSE_CHUNK limbs is
+     * converted on its own and written to its own part of the limb array, with
+     * nothing left to combine afterwards.
+     *
+     * @param integer Integer string that is to be parsed
+     * @param pool    Pool that converts the chunks
+     * @return BigInteger instance that stores the input integer.
+     * @throws IllegalArgumentException If input is incorrectly formatted
+     */
+    public static BigInteger parallelParse(String integer, ForkJoinPool pool) throws IllegalArgumentException {
+        if (!BigIntegerMetrics.ENABLED) {
+            return parseDigits(integer, pool);
+        }
+
+        BigIntegerMetrics.Probe probe = BigIntegerMetrics.start(BigIntegerMetrics.Operation.PARSE,
+                (integer.length() + BASE_DIGITS - 1) / BASE_DIGITS);
+
+        try {
+            return parseDigits(integer, pool);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    private static BigInteger parseDigits(String integer) {
+        return parseDigits(integer, null);
+    }
+
+    /**
+     * Parses sequentially if pool is null.
+     */
+    private static BigInteger parseDigits(String integer, ForkJoinPool pool) {
+        boolean negative = false;
 
         integer = integer.trim();
 
@@ -74,300 +239,684 @@ public class BigInteger {
             throw new IllegalArgumentException();
         }
 
-        for (int i = 0; i < integer.length(); i++) {
-            char place = integer.charAt(i);
+        int start = 0;
 
-            if (i == 0 && place == '-') {
-                BI.negative = true;
-                continue;
-            } else if (i == 0 && place == '+') {
-                BI.negative = false;
-                continue;
-            } else if (!nonZeroDigitFound && place == '0') {
-                continue;
-            }
+        if (integer.charAt(0) == '-') {
+            negative = true;
+            start++;
+        } else if (integer.charAt(0) == '+') {
+            start++;
+        }
 
-            nonZeroDigitFound = true;
+        while (start < integer.length() && integer.charAt(start) == '0') {
+            start++;
+        }
 
-            if (Character.isDigit(place)) {
-                addNewNode(BI, Character.getNumericValue(place));
-            } else {
-                throw new IllegalArgumentException();
-            }
+        int digits = integer.length() - start;
+        int[] limbs = new int[(digits + BASE_DIGITS - 1) / BASE_DIGITS];
+
+        if (limbs.length <= 1) {
+            parseLimbs(integer, start, limbs, 0, limbs.length);
+            long value = limbs.length == 0 ? 0 : limbs[0];
+            return valueOf(negative ? -value : value);
+        }
+
+        if (pool == null || limbs.length < 2 * PARSE_CHUNK) {
+            parseLimbs(integer, start, limbs, 0, limbs.length);
+        } else {
+            pool.invoke(new ParseTask(integer, start, limbs, 0, limbs.length));
         }
 
-        return BI;
+        return new BigInteger(negative, limbs, limbs.length);
+    }
+
+    /**
+     * Sets limbs[from .. to) from the digits of integer that start at index
+     * start. Limb i holds the nine digits that end 9 * i characters before the
+     * end of the string, the top limb possibly fewer.
+     */
+    private static void parseLimbs(String integer, int start, int[] limbs, int from, int to) {
+        int end = integer.length() - from * BASE_DIGITS;
+
+        for (int i = from; i < to; i++) {
+            int first = Math.max(start, end - BASE_DIGITS);
+            int limb = 0;
+
+            for (int j = first; j < end; j++) {
+                limb = limb * 10 + digitValue(integer.charAt(j));
+            }
+
+            limbs[i] = limb;
+            end = first;
+        }
     }
 
     /**
      * Adds the first and second big integers, and returns the result in a NEW
      * BigInteger object. DOES NOT MODIFY the input big integers.
-     * 
+     *
      * NOTE that either or both of the input big integers could be negative. (Which
      * means this method can effectively subtract as well.)
-     * 
+     *
      * @param first  First big integer
      * @param second Second big integer
      * @return Result big integer
      */
     public static BigInteger add(BigInteger first, BigInteger second) {
-        BigInteger BI = new BigInteger();
-        DigitNode a = first.front;
-        DigitNode b = second.front;
-        int sum = 0, carry = 0;
+        if (!BigIntegerMetrics.ENABLED) {
+            return sum(first, second);
+        }
 
-        if (first.negative == second.negative) { // addition
-            while (a != null || b != null) {
-                int aDigit = 0;
-                int bDigit = 0;
-
-                if (a == null) {
-                    aDigit = 0;
-                } else {
-                    aDigit = a.digit;
-                }
+        BigIntegerMetrics.Probe probe = BigIntegerMetrics.start(BigIntegerMetrics.Operation.ADD,
+                Math.max(first.length, second.length));
 
-                if (b == null) {
-                    bDigit = 0;
-                } else {
-                    bDigit = b.digit;
-                }
+        try {
+            return sum(first, second);
+        } finally {
+            probe.stop();
+        }
+    }
 
-                sum = aDigit + bDigit + carry;
-                carry = 0;
+    /**
+     * Returns first + second without a metrics probe. The library's own
+     * additions use this, so that only calls from outside are counted.
+     */
+    static BigInteger sum(BigInteger first, BigInteger second) {
+        if (second.length == 0) {
+            return first;
+        }
+        if (first.length == 0) {
+            return second;
+        }
 
-                if (sum >= 10) {
-                    carry++;
-                    sum -= 10;
-                }
+        if (first.negative == second.negative) { // addition
+            int[] sum = addMagnitudes(first.limbs, first.length, second.limbs, second.length);
+            return new BigInteger(first.negative, sum, sum.length);
+        }
 
-                addNewNode(BI, sum);
+        switch (whichIsBigger(first, second)) { // subtraction
+            case FIRST_BIGGER:
+                return new BigInteger(first.negative,
+                        subtractMagnitudes(first.limbs, first.length, second.limbs, second.length), first.length);
+            case SECOND_BIGGER:
+                return new BigInteger(second.negative,
+                        subtractMagnitudes(second.limbs, second.length, first.limbs, first.length), second.length);
+            default:
+                return ZERO;
+        }
+    }
 
-                if (a != null) {
-                    a = a.next;
-                }
+    /**
+     * Subtracts the second big integer from the first, and returns the result in a
+     * NEW BigInteger object. DOES NOT MODIFY the input big integers.
+     *
+     * @param first  First big integer
+     * @param second Second big integer
+     * @return Result big integer
+     */
+    public static BigInteger subtract(BigInteger first, BigInteger second) {
+        return add(first, negate(second));
+    }
 
-                if (b != null) {
-                    b = b.next;
-                }
-            }
+    /**
+     * Returns first - second without a metrics probe, as sum.
+     */
+    static BigInteger difference(BigInteger first, BigInteger second) {
+        return sum(first, negate(second));
+    }
 
-            if (carry != 0) {
-                addNewNode(BI, carry);
-            }
-        } else { // subtraction
-            DigitNode bigger = null;
-            DigitNode smaller = null;
-
-            switch (whichIsBigger(first, second)) {
-                case FIRST_BIGGER:
-                    bigger = first.front;
-                    smaller = second.front;
-                    break;
-                case SECOND_BIGGER:
-                    bigger = second.front;
-                    smaller = first.front;
-                    break;
-                case EQUAL:
-                    DigitNode newDigit = new DigitNode(0, null);
-                    BI.front = newDigit;
-                    return BI;
-                default:
-                    break;
-            }
+    /**
+     * Returns -x, sharing the limbs of x.
+     */
+    private static BigInteger negate(BigInteger x) {
+        return new BigInteger(!x.negative, x.limbs, x.length);
+    }
 
-            while (bigger != null || smaller != null) {
-                int smallerDigit;
+    /**
+     * Returns true if x is 1 or -1.
+     */
+    private static boolean isUnit(BigInteger x) {
+        return x.length == 1 && x.limbs[0] == 1;
+    }
 
-                if (smaller == null) {
-                    smallerDigit = 0;
-                } else {
-                    smallerDigit = smaller.digit;
-                }
+    private static BigInteger.COMPARISON whichIsBigger(BigInteger first, BigInteger second) {
+        int cmp = compareMagnitudes(first.limbs, first.length, second.limbs, second.length);
 
-                int biggerDigit = bigger.digit;
+        if (cmp > 0) {
+            return COMPARISON.FIRST_BIGGER;
+        } else if (cmp < 0) {
+            return COMPARISON.SECOND_BIGGER;
+        }
 
-                if (biggerDigit - carry < 0) {
-                    biggerDigit = 0;
-                    carry = 1;
-                } else {
-                    biggerDigit -= carry;
-                    carry = 0;
-                }
+        return COMPARISON.EQUAL;
+    }
 
-                if (biggerDigit < smallerDigit) {
-                    biggerDigit += 10;
-                    sum = biggerDigit - smallerDigit;
-                    carry = 1;
-                } else {
-                    sum = biggerDigit - smallerDigit;
-                }
+    /**
+     * Returns the BigInteger obtained by multiplying the first big integer with the
+     * second big integer
+     *
+     * This method DOES NOT MODIFY either of the input big integers
+     *
+     * @param first  First big integer
+     * @param second Second big integer
+     * @return A new BigInteger which is the product of the first and second big
+     *         integers
+     */
+    public static BigInteger multiply(BigInteger first, BigInteger second) {
+        if (!BigIntegerMetrics.ENABLED) {
+            return product(first, second);
+        }
 
-                addNewNode(BI, sum);
+        BigIntegerMetrics.Probe probe = BigIntegerMetrics.start(BigIntegerMetrics.Operation.MULTIPLY,
+                Math.max(first.length, second.length));
 
-                bigger = bigger.next;
+        try {
+            return product(first, second);
+        } finally {
+            probe.stop();
+        }
+    }
 
-                if (smaller != null) {
-                    smaller = smaller.next;
-                }
-            }
+    /**
+     * Returns first * second without a metrics probe, as sum.
+     */
+    static BigInteger product(BigInteger first, BigInteger second) {
+        if (first.length == 0 || second.length == 0) {
+            return ZERO;
+        }
+        if (isUnit(first)) {
+            return first.negative ? negate(second) : second;
+        }
+        if (isUnit(second)) {
+            return second.negative ? negate(first) : first;
         }
 
-        BigInteger finalBI = reverse(BI);
+        int[] product = Multiplier.multiply(first.limbs, first.length, second.limbs, second.length);
 
-        if (first.negative == second.negative) {
-            finalBI.negative = first.negative;
-        } else {
-            switch (whichIsBigger(first, second)) {
-                case FIRST_BIGGER:
-                    finalBI.negative = first.negative;
-                    break;
-                case SECOND_BIGGER:
-                    finalBI.negative = second.negative;
-                    break;
-                case EQUAL:
-                    break;
-                default:
-                    break;
-            }
+        return new BigInteger(first.negative != second.negative, product, product.length);
+    }
+
+    /**
+     * Returns the square of a big integer. Squaring shares work between the two
+     * equal operands: the schoolbook method computes each cross product once,
+     * Karatsuba and Toom-3 evaluate the operand once and square their parts,
+     * and the NTT needs one forward transform instead of two.
+     *
+     * This method DOES NOT MODIFY the input big integer
+     *
+     * @param x Big integer to square
+     * @return A new BigInteger which is x * x
+     */
+    public static BigInteger square(BigInteger x) {
+        if (x.length == 0) {
+            return ZERO;
         }
 
-        String finalBIString = finalBI.toString();
+        int[] product = Multiplier.square(x.limbs, x.length, false);
 
-        return parse(finalBIString);
+        return new BigInteger(false, product, product.length);
     }
 
-    private static BigInteger.COMPARISON whichIsBigger(BigInteger first, BigInteger second) {
-        if (first.numDigits > second.numDigits) {
-            return COMPARISON.FIRST_BIGGER;
-        } else if (first.numDigits < second.numDigits) {
-            return COMPARISON.SECOND_BIGGER;
-        } else {
-            BigInteger reverseFirst = reverse(first);
-            BigInteger reverseSecond = reverse(second);
-
-            DigitNode firstcrnt = reverseFirst.front;
-            DigitNode secondcrnt = reverseSecond.front;
-
-            while (firstcrnt != null && secondcrnt != null) {
-                if (firstcrnt.digit > secondcrnt.digit) {
-                    return COMPARISON.FIRST_BIGGER;
-                } else if (firstcrnt.digit < secondcrnt.digit) {
-                    return COMPARISON.SECOND_BIGGER;
-                } else if (firstcrnt.digit == secondcrnt.digit) {
-                    firstcrnt = firstcrnt.next;
-                    secondcrnt = secondcrnt.next;
-                }
-            }
+    /**
+     * Returns base^exponent by repeated squaring, from the highest bit of the
+     * exponent down. 0^0 is 1.
+     *
+     * @param base     Big integer to raise
+     * @param exponent Exponent, must not be negative
+     * @return A new BigInteger which is base^exponent
+     * @throws ArithmeticException If the exponent is negative
+     */
+    public static BigInteger pow(BigInteger base, int exponent) {
+        if (exponent < 0) {
+            throw new ArithmeticException("negative exponent");
+        }
+
+        BigInteger result = ONE;
 
-            if (firstcrnt == null && secondcrnt == null) {
-                return COMPARISON.EQUAL;
+        for (int bit = Integer.highestOneBit(exponent); bit != 0; bit >>>= 1) {
+            result = square(result);
+
+            if ((exponent & bit) != 0) {
+                result = product(result, base);
             }
         }
 
-        return null;
+        return result;
     }
 
     /**
-     * Returns the BigInteger obtained by multiplying the first big integer with the
-     * second big integer
-     * 
-     * This method DOES NOT MODIFY either of the input big integers
-     * 
+     * Returns 10^exponent. In base 10^9 this is one limb from TEN_POWERS above
+     * exponent / 9 zero limbs, so no multiplication is done.
+     *
+     * @param exponent Exponent, must not be negative
+     * @return A new BigInteger which is 10^exponent
+     * @throws ArithmeticException If the exponent is negative
+     */
+    public static BigInteger powerOfTen(int exponent) {
+        if (exponent < 0) {
+            throw new ArithmeticException("negative exponent");
+        }
+        if (exponent < 3) {
+            return CACHE[TEN_POWERS[exponent] - CACHE_LOW];
+        }
+
+        int[] limbs = new int[exponent / BASE_DIGITS + 1];
+        limbs[limbs.length - 1] = TEN_POWERS[exponent % BASE_DIGITS];
+        return new BigInteger(false, limbs, limbs.length);
+    }
+
+    /**
+     * Returns the same product as multiply, computed in parallel on the common
+     * ForkJoinPool.
+     *
      * @param first  First big integer
      * @param second Second big integer
      * @return A new BigInteger which is the product of the first and second big
      *         integers
      */
-    public static BigInteger multiply(BigInteger first, BigInteger second) {
-        BigInteger BI = new BigInteger();
-        DigitNode a = first.front;
-        DigitNode b = second.front;
-        int product = 0, carry = 0, countTens = 0, countTens2 = 0;
+    public static BigInteger parallelMultiply(BigInteger first, BigInteger second) {
+        return parallelMultiply(first, second, ForkJoinPool.commonPool());
+    }
 
-        while (a != null) {
-            BigInteger tempBI = new BigInteger();
+    /**
+     * Returns the same product as multiply, computed in parallel on the given
+     * pool. The pool's parallelism sets how many threads take part, and
+     * Multiplier.PARALLEL_THRESHOLD sets the operand size below which the work is
+     * no longer split.
+     *
+     * @param first  First big integer
+     * @param second Second big integer
+     * @param pool   Pool that runs the sub-products
+     * @return A new BigInteger which is the product of the first and second big
+     *         integers
+     */
+    public static BigInteger parallelMultiply(BigInteger first, BigInteger second, ForkJoinPool pool) {
+        if (first.length == 0 || second.length == 0) {
+            return ZERO;
+        }
 
-            while (countTens != 0) {
-                addNewNode(tempBI, 0);
-                countTens--;
-            }
-            countTens = countTens2;
+        int[] product = pool.invoke(
+                new Multiplier.ProductTask(first.limbs, 0, first.length, second.limbs, 0, second.length));
+
+        return new BigInteger(first.negative != second.negative, product, product.length);
+    }
+
+    /**
+     * Returns the quotient of the first big integer divided by the second,
+     * rounded towards zero, in a NEW BigInteger object.
+     *
+     * @param first  Dividend
+     * @param second Divisor
+     * @return first / second
+     * @throws ArithmeticException If the divisor is zero
+     */
+    public static BigInteger divide(BigInteger first, BigInteger second) {
+        BigInteger quotient = divideMagnitudes(first, second)[0];
+        return new BigInteger(first.negative != second.negative, quotient.limbs, quotient.length);
+    }
+
+    /**
+     * Returns the remainder of the first big integer divided by the second, in a
+     * NEW BigInteger object. The remainder has the sign of the dividend, so that
+     * first = divide(first, second) * second + remainder(first, second).
+     *
+     * @param first  Dividend
+     * @param second Divisor
+     * @return first % second
+     * @throws ArithmeticException If the divisor is zero
+     */
+    public static BigInteger remainder(BigInteger first, BigInteger second) {
+        BigInteger remainder = divideMagnitudes(first, second)[1];
+        return new BigInteger(first.negative, remainder.limbs, remainder.length);
+    }
+
+    /**
+     * Returns base^exponent mod modulus, in the range [0, modulus). Odd moduli are
+     * handled in binary Montgomery form, even ones with Barrett reduction, so the
+     * loop performs no divisions.
+     *
+     * @param base     Base, may be negative
+     * @param exponent Exponent, must not be negative
+     * @param modulus  Modulus, must be positive
+     * @return base^exponent mod modulus
+     * @throws ArithmeticException If the modulus is not positive or the exponent
+     *                             is negative
+     */
+    public static BigInteger modPow(BigInteger base, BigInteger exponent, BigInteger modulus) {
+        if (modulus.negative || modulus.length == 0) {
+            throw new ArithmeticException("modulus not positive");
+        }
+        if (exponent.negative) {
+            throw new ArithmeticException("negative exponent");
+        }
+
+        BigInteger b = remainder(base, modulus);
+        if (b.negative) {
+            b = sum(b, modulus);
+        }
+
+        if (MontgomeryReducer.supports(modulus)) {
+            return montgomeryModPow(b, exponent, new MontgomeryReducer(modulus));
+        }
 
-            while (b != null) {
-                product = (a.digit * b.digit) + carry;
+        return barrettModPow(b, exponent, new BarrettReducer(modulus));
+    }
 
-                carry = product / 10;
-                product = product % 10;
+    private static BigInteger montgomeryModPow(BigInteger b, BigInteger exponent, MontgomeryReducer reducer) {
+        // fixed 4-bit window: table[i] = b^i, in Montgomery form
+        int[][] table = new int[16][];
+        table[0] = reducer.toMontgomery(ONE);
+        table[1] = reducer.toMontgomery(b);
+        for (int i = 2; i < table.length; i++) {
+            table[i] = new int[reducer.k];
+            reducer.multiply(table[i - 1], table[1], table[i]);
+        }
 
-                addNewNode(tempBI, product);
+        int[] bits = MontgomeryReducer.toBinary(exponent);
+        int[] result = table[0].clone();
+
+        for (int word = bits.length - 1; word >= 0; word--) {
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                for (int s = 0; s < 4; s++) {
+                    reducer.square(result, result);
+                }
 
-                b = b.next;
+                int window = (bits[word] >>> shift) & 0xf;
+                if (window != 0) {
+                    reducer.multiply(result, table[window], result);
+                }
             }
+        }
+
+        return reducer.fromMontgomery(result);
+    }
+
+    private static BigInteger barrettModPow(BigInteger b, BigInteger exponent, BarrettReducer reducer) {
+        // fixed 4-bit window: table[i] = b^i mod modulus
+        BigInteger[] table = new BigInteger[16];
+        table[0] = reducer.reduce(ONE);
+        for (int i = 1; i < table.length; i++) {
+            table[i] = reducer.reduce(product(table[i - 1], b));
+        }
+
+        int[] bits = MontgomeryReducer.toBinary(exponent);
+        BigInteger result = table[0];
 
-            if (carry != 0) {
-                addNewNode(tempBI, carry);
-                carry = 0;
+        for (int word = bits.length - 1; word >= 0; word--) {
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                for (int s = 0; s < 4; s++) {
+                    result = reducer.reduce(square(result));
+                }
+
+                int window = (bits[word] >>> shift) & 0xf;
+                if (window != 0) {
+                    result = reducer.reduce(product(result, table[window]));
+                }
             }
+        }
 
-            BI = add(reverse(tempBI), BI);
+        return result;
+    }
 
-            countTens++;
-            countTens2 = countTens;
+    private static BigInteger[] divideMagnitudes(BigInteger first, BigInteger second) {
+        if (second.length == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+
+        return Divider.divideAndRemainder(new BigInteger(false, first.limbs, first.length),
+                new BigInteger(false, second.limbs, second.length));
+    }
 
-            a = a.next;
-            b = second.front;
+    /**
+     * Compares two magnitudes.
+     *
+     * @return Negative, zero or positive as a is less than, equal to or greater
+     *         than b
+     */
+    static int compareMagnitudes(int[] a, int alen, int[] b, int blen) {
+        if (alen != blen) {
+            return alen > blen ? 1 : -1;
         }
 
-        if (first.negative == second.negative) {
-            BI.negative = first.negative;
-        } else {
-            BI.negative = true;
+        return LimbKernels.INSTANCE.compare(a, b, alen);
+    }
+
+    /**
+     * Returns a + b in a new array one limb longer than the longer operand.
+     */
+    static int[] addMagnitudes(int[] a, int alen, int[] b, int blen) {
+        return addMagnitudes(a, 0, alen, b, 0, blen);
+    }
+
+    /**
+     * Returns a[aoff .. aoff+alen) + b[boff .. boff+blen) in a new array one limb
+     * longer than the longer operand.
+     */
+    static int[] addMagnitudes(int[] a, int aoff, int alen, int[] b, int boff, int blen) {
+        if (alen < blen) {
+            int[] t = a;
+            a = b;
+            b = t;
+            int to = aoff;
+            aoff = boff;
+            boff = to;
+            int tl = alen;
+            alen = blen;
+            blen = tl;
+        }
+
+        int[] sum = new int[alen + 1];
+        int carry = LimbKernels.INSTANCE.add(a, aoff, b, boff, sum, 0, blen, 0);
+        int i = blen;
+
+        // once the carry dies out the rest of the longer operand is copied as is
+        for (; i < alen && carry != 0; i++) {
+            int s = a[aoff + i] + carry;
+            carry = s >= BASE ? 1 : 0;
+            sum[i] = s - carry * BASE;
+        }
+
+        System.arraycopy(a, aoff + i, sum, i, alen - i);
+        sum[alen] = carry;
+        return sum;
+    }
+
+    /**
+     * Returns a - b in a new array of alen limbs. The magnitude of a must not be
+     * smaller than that of b.
+     */
+    static int[] subtractMagnitudes(int[] a, int alen, int[] b, int blen) {
+        int[] diff = new int[alen];
+        int borrow = LimbKernels.INSTANCE.subtract(a, 0, b, 0, diff, 0, blen, 0);
+        int i = blen;
+
+        for (; i < alen && borrow != 0; i++) {
+            int d = a[i] - borrow;
+            borrow = d < 0 ? 1 : 0;
+            diff[i] = d + borrow * BASE;
+        }
+
+        System.arraycopy(a, i, diff, i, alen - i);
+        return diff;
+    }
+
+    private static int digitValue(char place) {
+        if (place >= '0' && place <= '9') {
+            return place - '0';
+        } else if (Character.isDigit(place)) {
+            return Character.getNumericValue(place);
         }
 
-        return BI;
+        throw new IllegalArgumentException();
     }
 
-    private static void addNewNode(BigInteger BI, int num) {
-        DigitNode newDigit = new DigitNode(num, null);
+    /**
+     * Number of decimal digits of a non-zero limb
+     */
+    static int digitCount(int limb) {
+        int count = 1;
+
+        while (count < BASE_DIGITS && limb >= TEN_POWERS[count]) {
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Compares this integer with another one. Integers of different signs or
+     * different numbers of limbs are ordered without looking at the limbs,
+     * otherwise the limbs are scanned once, most significant first.
+     *
+     * @param other Integer to compare with
+     * @return A negative number, zero or a positive number as this integer is
+     *         less than, equal to or greater than other
+     */
+    public int compareTo(BigInteger other) {
+        if (negative != other.negative) {
+            return negative ? -1 : 1;
+        }
+
+        int cmp = compareMagnitudes(limbs, length, other.limbs, other.length);
+        return negative ? -cmp : cmp;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BigInteger)) {
+            return false;
+        }
+
+        BigInteger other = (BigInteger) obj;
 
-        if (BI.front != null) {
-            newDigit.next = BI.front;
+        if (negative != other.negative || length != other.length) {
+            return false;
+        }
+        // two hashes already computed settle most unequal pairs without a scan
+        if (hash != 0 && other.hash != 0 && hash != other.hash) {
+            return false;
         }
 
-        BI.front = newDigit;
+        return Arrays.equals(limbs, 0, length, other.limbs, 0, length);
     }
 
-    private static BigInteger reverse(BigInteger BI) {
-        BigInteger reversedBI = new BigInteger();
-        DigitNode reverse = BI.front;
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode() {
+        int h = hash;
+
+        // racy but safe, like String: every thread computes the same value
+        if (h == 0 && !hashIsZero) {
+            h = negative ? -1 : 1;
 
-        while (reverse != null) {
-            DigitNode newDigit = new DigitNode(reverse.digit, reversedBI.front);
-            reversedBI.front = newDigit;
-            reverse = reverse.next;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + limbs[i];
+            }
+
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
         }
 
-        return reversedBI;
+        return h;
     }
 
     /*
      * (non-Javadoc)
-     * 
+     *
      * @see java.lang.Object#toString()
      */
     public String toString() {
-        if (front == null) {
-            return "0";
+        if (!BigIntegerMetrics.ENABLED) {
+            return decimal();
         }
-        String retval = front.digit + "";
-        for (DigitNode curr = front.next; curr != null; curr = curr.next) {
-            retval = curr.digit + retval;
+
+        BigIntegerMetrics.Probe probe = BigIntegerMetrics.start(BigIntegerMetrics.Operation.TO_STRING, length);
+
+        try {
+            return decimal();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    private String decimal() {
+        if (length == 0) {
+            return "0";
         }
 
+        char[] retval = new char[(negative ? 1 : 0) + numDigits];
+
         if (negative) {
-            retval = '-' + retval;
+            retval[0] = '-';
+        }
+
+        // digits are written backwards from the end, one limb at a time
+        int pos = retval.length;
+
+        for (int i = 0; i < length - 1; i++) {
+            pos = writeLimb(limbs[i], BASE_DIGITS, retval, pos);
+        }
+
+        writeLimb(limbs[length - 1], digitCount(limbs[length - 1]), retval, pos);
+        return new String(retval);
+    }
+
+    /**
+     * Writes the lowest count decimal digits of a limb into out, ending just
+     * before position end, and returns the position of the first one written.
+     */
+    static int writeLimb(int limb, int count, char[] out, int end) {
+        for (int d = 0; d < count; d++) {
+            int q = limb / 10;
+            out[--end] = (char) ('0' + limb - q * 10);
+            limb = q;
+        }
+
+        return end;
+    }
+
+    /**
+     * Converts limbs[from .. to) for parallelParse, halving the range while both
+     * halves are at least PARSE_CHUNK limbs.
+     */
+    static class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final String integer;
+        final int start;
+        final int[] limbs;
+        final int from, to;
+
+        ParseTask(String integer, int start, int[] limbs, int from, int to) {
+            this.integer = integer;
+            this.start = start;
+            this.limbs = limbs;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from < 2 * PARSE_CHUNK) {
+                parseLimbs(integer, start, limbs, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(integer, start, limbs, from, mid),
+                        new ParseTask(integer, start, limbs, mid, to));
+            }
         }
-        return retval;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,384 @@
+package bigint;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class holds many integers of similar size in one packed, columnar
+ * array, and adds two batches element by element.
+ *
+ * Every element has the same number of limbs (the width of the batch), and
+ * limb j of element i is stored at limbs[j * size + i]. Negative elements are
+ * kept in base 10^9 complement, BASE^width - |x|, and an element is negative
+ * when its top limb is at least BASE / 2. Addition then needs neither a
+ * comparison nor a branch on the signs, and runs one limb column at a time
+ * across all the elements, with no allocation per element.
+ *
+ * There is no batch multiply. Multiplication gains nothing from running across
+ * elements, since every element would be padded to the width of the batch, and
+ * copying blocks of elements out to multiply them one at a time was still
+ * slower than calling BigInteger.multiply on each pair. multiplyAll does just
+ * that on plain arrays, until a columnar multiply beats it.
+ *
+ * The add that takes a ForkJoinPool splits the elements into ranges of at
+ * least PARALLEL_THRESHOLD and processes the ranges in parallel.
+ *
+ */
+public class BigIntegerBatch {
+
+    /**
+     * Smallest number of elements that is worth processing as a separate task
+     */
+    public static int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int BASE = BigInteger.BASE;
+
+    /**
+     * Top limbs at or above this value mark a negative element
+     */
+    private static final int HALF = BASE / 2;
+
+    /**
+     * Elements copied together by of and toArray
+     */
+    private static final int BLOCK = 256;
+
+    /**
+     * Number of elements
+     */
+    final int size;
+
+    /**
+     * Number of limbs of every element, sign included
+     */
+    final int width;
+
+    /**
+     * Limb j of element i is limbs[j * size + i], least significant limb first
+     */
+    final int[] limbs;
+
+    private BigIntegerBatch(int size, int width) {
+        if ((long) size * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("batch too large");
+        }
+
+        this.size = size;
+        this.width = width;
+        this.limbs = new int[size * width];
+    }
+
+    /**
+     * Packs integers into a new batch. The batch is as wide as the longest of
+     * them needs.
+     *
+     * @param values Integers to pack
+     * @return Batch holding the values in the same order
+     */
+    public static BigIntegerBatch of(BigInteger... values) {
+        int width = 1;
+
+        for (BigInteger value : values) {
+            // one more limb if the top limb would read as a sign
+            int needed = value.length > 0 && value.limbs[value.length - 1] >= HALF ? value.length + 1 : value.length;
+            width = Math.max(width, needed);
+        }
+
+        BigIntegerBatch batch = new BigIntegerBatch(values.length, width);
+        int[] block = new int[BLOCK * width];
+
+        for (int lo = 0; lo < values.length; lo += BLOCK) {
+            int len = Math.min(BLOCK, values.length - lo);
+            java.util.Arrays.fill(block, 0);
+
+            for (int e = 0; e < len; e++) {
+                BigInteger value = values[lo + e];
+                System.arraycopy(value.limbs, 0, block, e * width, value.length);
+
+                if (value.negative) {
+                    negate(block, e * width, width);
+                }
+            }
+
+            batch.store(lo, len, block);
+        }
+
+        return batch;
+    }
+
+    /**
+     * Returns the number of integers in this batch.
+     *
+     * @return Number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns one element of this batch as a new BigInteger.
+     *
+     * @param index Index of the element
+     * @return Element at the index
+     * @throws IndexOutOfBoundsException If the index is outside the batch
+     */
+    public BigInteger get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        int[] magnitude = new int[width];
+
+        for (int j = 0; j < width; j++) {
+            magnitude[j] = limbs[j * size + index];
+        }
+
+        return toBigInteger(magnitude, 0, width);
+    }
+
+    /**
+     * Returns every element of this batch as new BigIntegers.
+     *
+     * @return Elements in order
+     */
+    public BigInteger[] toArray() {
+        BigInteger[] values = new BigInteger[size];
+        int[] block = new int[BLOCK * width];
+
+        for (int lo = 0; lo < size; lo += BLOCK) {
+            int len = Math.min(BLOCK, size - lo);
+            load(lo, len, block);
+
+            for (int e = 0; e < len; e++) {
+                values[lo + e] = toBigInteger(block, e * width, width);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Returns the element-wise sums of two batches of equal size.
+     *
+     * @param first  First batch
+     * @param second Second batch
+     * @return New batch with first[i] + second[i] at index i
+     * @throws IllegalArgumentException If the batches differ in size
+     */
+    public static BigIntegerBatch add(BigIntegerBatch first, BigIntegerBatch second) {
+        return apply(first, second, null);
+    }
+
+    /**
+     * Returns the same sums as add, computed in parallel on the given pool.
+     *
+     * @param first  First batch
+     * @param second Second batch
+     * @param pool   Pool that runs the ranges of elements
+     * @return New batch with first[i] + second[i] at index i
+     * @throws IllegalArgumentException If the batches differ in size
+     */
+    public static BigIntegerBatch add(BigIntegerBatch first, BigIntegerBatch second, ForkJoinPool pool) {
+        return apply(first, second, pool);
+    }
+
+    /**
+     * Adds two arrays of integers element by element, through batches. Packing
+     * and unpacking cost more than the additions themselves, so jobs that do
+     * several operations should keep their data in batches in between.
+     *
+     * @param first  First operands
+     * @param second Second operands, as many as the first
+     * @return first[i] + second[i] at index i
+     * @throws IllegalArgumentException If the arrays differ in length
+     */
+    public static BigInteger[] addAll(BigInteger[] first, BigInteger[] second) {
+        return add(of(first), of(second)).toArray();
+    }
+
+    /**
+     * Multiplies two arrays of integers element by element. Unlike addAll it
+     * does not go through batches: packing, padding every element to the batch
+     * width and unpacking made a columnar multiply slower than calling
+     * BigInteger.multiply on each pair.
+     *
+     * @param first  First operands
+     * @param second Second operands, as many as the first
+     * @return first[i] * second[i] at index i
+     * @throws IllegalArgumentException If the arrays differ in length
+     */
+    public static BigInteger[] multiplyAll(BigInteger[] first, BigInteger[] second) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("batch sizes differ");
+        }
+
+        BigInteger[] products = new BigInteger[first.length];
+
+        for (int i = 0; i < products.length; i++) {
+            products[i] = BigInteger.multiply(first[i], second[i]);
+        }
+
+        return products;
+    }
+
+    private static BigIntegerBatch apply(BigIntegerBatch first, BigIntegerBatch second, ForkJoinPool pool) {
+        if (first.size != second.size) {
+            throw new IllegalArgumentException("batch sizes differ");
+        }
+
+        // |x| < BASE^width / 2, so a sum needs one more limb
+        BigIntegerBatch result = new BigIntegerBatch(first.size, Math.max(first.width, second.width) + 1);
+        RangeTask task = new RangeTask(first, second, result, 0, first.size);
+
+        if (pool == null) {
+            task.run(false);
+        } else {
+            pool.invoke(task);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sets result[from .. to) = first + second, one limb column at a time.
+     * Shorter operands are sign-extended, and the carry out of the top limb is
+     * dropped, as complement arithmetic requires. The loop body has no branches.
+     */
+    private static void add(BigIntegerBatch first, BigIntegerBatch second, BigIntegerBatch result, int from,
+            int to) {
+        int len = to - from;
+        int[] extendA = first.extension(from, len), extendB = second.extension(from, len);
+        int[] carry = new int[len];
+        int[] r = result.limbs;
+
+        for (int j = 0; j < result.width; j++) {
+            int[] x = j < first.width ? first.limbs : extendA;
+            int[] y = j < second.width ? second.limbs : extendB;
+            int xo = j < first.width ? j * first.size + from : 0;
+            int yo = j < second.width ? j * second.size + from : 0;
+            int ro = j * result.size + from;
+
+            for (int e = 0; e < len; e++) {
+                int sum = x[xo + e] + y[yo + e] + carry[e];
+                int c = (BASE - 1 - sum) >>> 31;
+                r[ro + e] = sum - (BASE & -c);
+                carry[e] = c;
+            }
+        }
+    }
+
+    /**
+     * Copies elements [lo .. lo+len) into block, element e at block[e * width ..
+     * (e+1) * width), in complement form.
+     */
+    private void load(int lo, int len, int[] block) {
+        for (int j = 0; j < width; j++) {
+            int column = j * size + lo;
+
+            for (int e = 0; e < len; e++) {
+                block[e * width + j] = limbs[column + e];
+            }
+        }
+    }
+
+    /**
+     * Copies a block laid out as by load back into elements [lo .. lo+len).
+     */
+    private void store(int lo, int len, int[] block) {
+        for (int j = 0; j < width; j++) {
+            int column = j * size + lo;
+
+            for (int e = 0; e < len; e++) {
+                limbs[column + e] = block[e * width + j];
+            }
+        }
+    }
+
+    /**
+     * The limb that extends elements [from .. from+len) beyond the width of this
+     * batch: BASE - 1 for negative elements, 0 for the others.
+     */
+    private int[] extension(int from, int len) {
+        int[] limbs = new int[len];
+        int top = (width - 1) * size + from;
+
+        for (int e = 0; e < len; e++) {
+            limbs[e] = (BASE - 1) & -((HALF - 1 - this.limbs[top + e]) >>> 31);
+        }
+
+        return limbs;
+    }
+
+    /**
+     * Turns the complement form in x[off .. off+width) into a magnitude, and
+     * returns true if the element was negative.
+     */
+    private static boolean magnitude(int[] x, int off, int width) {
+        if (x[off + width - 1] < HALF) {
+            return false;
+        }
+
+        negate(x, off, width);
+        return true;
+    }
+
+    /**
+     * Replaces x[off .. off+width) by BASE^width minus its value, which turns a
+     * magnitude into complement form and back.
+     */
+    private static void negate(int[] x, int off, int width) {
+        int carry = 1;
+
+        for (int j = off; j < off + width; j++) {
+            int limb = BASE - 1 - x[j] + carry;
+            carry = limb == BASE ? 1 : 0;
+            x[j] = limb - carry * BASE;
+        }
+    }
+
+    /**
+     * Reads the element in complement form at x[off .. off+width) as a new
+     * BigInteger.
+     */
+    private static BigInteger toBigInteger(int[] x, int off, int width) {
+        int[] magnitude = new int[width];
+        System.arraycopy(x, off, magnitude, 0, width);
+        boolean negative = magnitude(magnitude, 0, width);
+
+        return new BigInteger(negative, magnitude, width);
+    }
+
+    /**
+     * An addition over the elements [from .. to), split in half and forked
+     * while both halves are at least PARALLEL_THRESHOLD long.
+     */
+    static class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final BigIntegerBatch first, second, result;
+        final int from, to;
+
+        RangeTask(BigIntegerBatch first, BigIntegerBatch second, BigIntegerBatch result, int from, int to) {
+            this.first = first;
+            this.second = second;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        void run(boolean parallel) {
+            if (parallel && to - from >= 2 * PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeTask(first, second, result, from, mid),
+                        new RangeTask(first, second, result, mid, to));
+            } else {
+                add(first, second, result, from, to);
+            }
+        }
+
+        protected void compute() {
+            run(true);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package bigint;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class remembers the results of multiply, square, pow and modPow, so that
+ * jobs which compute the same products over and over, for instance powers of a
+ * fixed base or exponentiations modulo a fixed modulus, compute each of them
+ * once.
+ *
+ * The cache is bounded by a budget in bytes of limbs. An entry costs the limbs
+ * of its result and of its operands, which the key keeps alive. When the budget
+ * is exceeded the least recently used entries are evicted, and a result larger
+ * than the whole budget is returned without being cached.
+ *
+ * Keys compare operands by value, using BigInteger's cached hash codes, so equal
+ * operands built separately still hit. Results are shared between callers, which
+ * is safe since a BigInteger is never modified once built.
+ *
+ * The cache is thread safe. Results are computed outside the lock, so two
+ * threads missing on the same key at once may both compute it.
+ *
+ */
+public class BigIntegerCache {
+
+    /**
+     * The cached operations
+     */
+    enum Operation {
+        MULTIPLY, SQUARE, POW, MOD_POW
+    }
+
+    /**
+     * Budget used by the no-argument constructor, 64 MiB
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Key, BigInteger> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+    private long hits, misses, evictions;
+
+    /**
+     * Creates a cache with a budget of DEFAULT_MAX_BYTES.
+     */
+    public BigIntegerCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache whose entries hold at most maxBytes bytes of limbs.
+     *
+     * @param maxBytes Budget in bytes, must not be negative
+     * @throws IllegalArgumentException If the budget is negative
+     */
+    public BigIntegerCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("negative budget");
+        }
+
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the product of two integers, as BigInteger.multiply. The operands
+     * may come in either order.
+     *
+     * @param first  First big integer
+     * @param second Second big integer
+     * @return first * second
+     */
+    public BigInteger multiply(BigInteger first, BigInteger second) {
+        if (first.hashCode() > second.hashCode()) {
+            BigInteger t = first;
+            first = second;
+            second = t;
+        }
+
+        Key key = new Key(Operation.MULTIPLY, 0, first, second);
+        BigInteger result = lookup(key);
+
+        if (result == null) {
+            result = BigInteger.multiply(first, second);
+            store(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the square of an integer, as BigInteger.square.
+     *
+     * @param x Big integer
+     * @return x * x
+     */
+    public BigInteger square(BigInteger x) {
+        Key key = new Key(Operation.SQUARE, 0, x);
+        BigInteger result = lookup(key);
+
+        if (result == null) {
+            result = BigInteger.square(x);
+            store(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns base^exponent, as BigInteger.pow. Powers of ten are built directly
+     * by BigInteger.powerOfTen and are not cached.
+     *
+     * @param base     Big integer to raise
+     * @param exponent Exponent, must not be negative
+     * @return base^exponent
+     * @throws ArithmeticException If the exponent is negative
+     */
+    public BigInteger pow(BigInteger base, int exponent) {
+        if (base.length == 1 && base.limbs[0] == 10 && !base.negative) {
+            return BigInteger.powerOfTen(exponent);
+        }
+
+        Key key = new Key(Operation.POW, exponent, base);
+        BigInteger result = lookup(key);
+
+        if (result == null) {
+            result = BigInteger.pow(base, exponent);
+            store(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns base^exponent mod modulus, as BigInteger.modPow.
+     *
+     * @param base     Base, may be negative
+     * @param exponent Exponent, must not be negative
+     * @param modulus  Modulus, must be positive
+     * @return base^exponent mod modulus
+     * @throws ArithmeticException If the modulus is not positive or the exponent
+     *                             is negative
+     */
+    public BigInteger modPow(BigInteger base, BigInteger exponent, BigInteger modulus) {
+        Key key = new Key(Operation.MOD_POW, 0, base, exponent, modulus);
+        BigInteger result = lookup(key);
+
+        if (result == null) {
+            result = BigInteger.modPow(base, exponent, modulus);
+            store(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of calls answered from the cache.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of calls that had to compute their result.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the budget.
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of calls answered from the cache, 0 if there were no
+     * calls.
+     */
+    public synchronized double hitRate() {
+        long calls = hits + misses;
+        return calls == 0 ? 0 : (double) hits / calls;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the bytes of limbs held by the cached entries, never more than
+     * maxBytes().
+     */
+    public synchronized long cachedBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the budget in bytes.
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Removes every entry and sets the counters back to zero.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+        hits = misses = evictions = 0;
+    }
+
+    private synchronized BigInteger lookup(Key key) {
+        BigInteger result = entries.get(key);
+
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+
+        return result;
+    }
+
+    private synchronized void store(Key key, BigInteger result) {
+        long cost = key.bytes() + limbBytes(result);
+
+        if (cost > maxBytes || entries.containsKey(key)) {
+            return;
+        }
+
+        entries.put(key, result);
+        bytes += cost;
+
+        Iterator<Map.Entry<Key, BigInteger>> eldest = entries.entrySet().iterator();
+
+        while (bytes > maxBytes) {
+            Map.Entry<Key, BigInteger> entry = eldest.next();
+            bytes -= entry.getKey().bytes() + limbBytes(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long limbBytes(BigInteger x) {
+        return 4L * x.length;
+    }
+
+    /**
+     * An operation with its operands. The hash combines the operands' own
+     * cached hashes, so building a key costs no pass over the limbs.
+     */
+    private static final class Key {
+
+        final Operation operation;
+        final int exponent;
+        final BigInteger[] operands;
+        final int hash;
+
+        Key(Operation operation, int exponent, BigInteger... operands) {
+            this.operation = operation;
+            this.exponent = exponent;
+            this.operands = operands;
+            this.hash = 31 * (31 * operation.ordinal() + exponent) + Arrays.hashCode(operands);
+        }
+
+        long bytes() {
+            long total = 0;
+
+            for (BigInteger operand : operands) {
+                total += limbBytes(operand);
+            }
+
+            return total;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return hash == other.hash && operation == other.operation && exponent == other.exponent
+                    && Arrays.equals(operands, other.operands);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
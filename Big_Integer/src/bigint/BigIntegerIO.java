@@ -0,0 +1,396 @@
+package bigint;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads and writes BigIntegers in decimal directly from and to
+ * streams, channels and files, without ever holding the whole number as a
+ * String. Digits are packed into an int array as they arrive, and that array
+ * becomes the limbs of the result. When the length of the input is known, as
+ * for files and seekable channels, the array is sized once up front, so reading
+ * a 100MB integer needs about 44MB of limbs (four bytes per nine digits) and a
+ * small buffer. From a Reader or another channel the array grows by doubling,
+ * and may briefly need up to three times that.
+ *
+ * The accepted format is the same as BigInteger.parse: optional leading and
+ * trailing whitespace, an optional sign, and digits with no spaces between
+ * them. Byte sources must be ASCII.
+ *
+ */
+public class BigIntegerIO {
+
+    /**
+     * Size of the transfer buffers, in bytes or chars
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Size of the windows in which a file is memory-mapped
+     */
+    static final long MAP_WINDOW = 1L << 28;
+
+    private BigIntegerIO() {
+    }
+
+    /**
+     * Reads a BigInteger from a character stream, up to the end of the stream.
+     *
+     * @param in Stream to read from, it is not closed
+     * @return BigInteger instance that stores the integer read
+     * @throws IOException              If the stream cannot be read
+     * @throws IllegalArgumentException If the input is incorrectly formatted
+     */
+    public static BigInteger read(Reader in) throws IOException {
+        Parser parser = new Parser();
+        char[] buffer = new char[BUFFER_SIZE];
+        int count;
+
+        while ((count = in.read(buffer)) != -1) {
+            for (int i = 0; i < count; i++) {
+                parser.accept(buffer[i]);
+            }
+        }
+
+        return parser.finish();
+    }
+
+    /**
+     * Reads a BigInteger from a channel of ASCII bytes, up to the end of the
+     * channel.
+     *
+     * @param in Channel to read from, it is not closed
+     * @return BigInteger instance that stores the integer read
+     * @throws IOException              If the channel cannot be read
+     * @throws IllegalArgumentException If the input is incorrectly formatted
+     */
+    public static BigInteger read(ReadableByteChannel in) throws IOException {
+        Parser parser = in instanceof SeekableByteChannel
+                ? new Parser(((SeekableByteChannel) in).size() - ((SeekableByteChannel) in).position())
+                : new Parser();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        while (in.read(buffer) != -1) {
+            buffer.flip();
+            parser.accept(buffer);
+            buffer.clear();
+        }
+
+        return parser.finish();
+    }
+
+    /**
+     * Reads a BigInteger from a file of ASCII digits by memory-mapping it, so the
+     * file contents are never copied onto the heap.
+     *
+     * @param file File to read
+     * @return BigInteger instance that stores the integer read
+     * @throws IOException              If the file cannot be read
+     * @throws IllegalArgumentException If the input is incorrectly formatted
+     */
+    public static BigInteger read(Path file) throws IOException {
+        Parser parser;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            parser = new Parser(size);
+
+            for (long position = 0; position < size; position += MAP_WINDOW) {
+                parser.accept(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_WINDOW, size - position)));
+            }
+        }
+
+        return parser.finish();
+    }
+
+    /**
+     * Writes the decimal form of a BigInteger to a character stream, the same
+     * text as toString.
+     *
+     * @param integer Integer to write
+     * @param out     Stream to write to, it is neither flushed nor closed
+     * @throws IOException If the stream cannot be written
+     */
+    public static void write(BigInteger integer, Writer out) throws IOException {
+        CharBuffer buffer = CharBuffer.allocate(BUFFER_SIZE);
+        Emitter emitter = new Emitter(integer);
+
+        while (emitter.fill(buffer)) {
+            buffer.flip();
+            out.write(buffer.array(), 0, buffer.limit());
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the decimal form of a BigInteger to a channel as ASCII bytes, the
+     * same text as toString.
+     *
+     * @param integer Integer to write
+     * @param out     Channel to write to, it is not closed
+     * @throws IOException If the channel cannot be written
+     */
+    public static void write(BigInteger integer, WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        Emitter emitter = new Emitter(integer);
+
+        while (emitter.fill(buffer)) {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Incremental parser. Digits are collected nine at a time from the most
+     * significant end, then re-aligned to the least significant end once the
+     * total number of digits is known.
+     */
+    static class Parser {
+
+        private static final int LEADING = 0, SIGN = 1, DIGITS = 2, TRAILING = 3;
+
+        private int state = LEADING;
+        private boolean negative;
+
+        /**
+         * Full groups of nine digits, most significant first. finish reverses
+         * them in place into the limbs of the result.
+         */
+        private int[] groups;
+        private int count;
+
+        /**
+         * Group being filled, and how many digits it holds
+         */
+        private int group;
+        private int groupDigits;
+
+        Parser() {
+            groups = new int[16];
+        }
+
+        /**
+         * Initializes a parser for an input of the given number of characters,
+         * with room for all of its groups and the extra limb finish needs.
+         */
+        Parser(long chars) {
+            groups = new int[(int) Math.min(chars / BigInteger.BASE_DIGITS + 2, Integer.MAX_VALUE - 8)];
+        }
+
+        void accept(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                accept((char) (buffer.get() & 0xff));
+            }
+        }
+
+        void accept(char ch) {
+            if (state == LEADING) {
+                if (ch <= ' ') {
+                    return;
+                }
+
+                state = SIGN;
+
+                if (ch == '-' || ch == '+') {
+                    negative = ch == '-';
+                    return;
+                }
+                // otherwise the first character is a digit, handled below
+            }
+
+            if (state == SIGN) {
+                if (ch == '0') { // insignificant zeros
+                    return;
+                }
+
+                state = DIGITS;
+            }
+
+            if (state == DIGITS) {
+                if (ch <= ' ') {
+                    state = TRAILING;
+                    return;
+                }
+
+                group = group * 10 + digitValue(ch);
+
+                if (++groupDigits == BigInteger.BASE_DIGITS) {
+                    if (count == groups.length) {
+                        grow();
+                    }
+
+                    groups[count++] = group;
+                    group = 0;
+                    groupDigits = 0;
+                }
+                return;
+            }
+
+            if (ch > ' ') {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        BigInteger finish() {
+            if (state == LEADING) {
+                throw new IllegalArgumentException();
+            }
+
+            // reverse the full groups into limbs, least significant first, with
+            // room for one more limb on top
+            if (count == groups.length) {
+                grow();
+            }
+
+            int[] limbs = groups;
+            groups = null;
+
+            for (int i = 0, j = count - 1; i < j; i++, j--) {
+                int t = limbs[i];
+                limbs[i] = limbs[j];
+                limbs[j] = t;
+            }
+
+            limbs[count] = 0;
+
+            // the partial last group holds the lowest digits: limbs * 10^d + group
+            if (groupDigits > 0) {
+                int scale = 1;
+
+                for (int d = 0; d < groupDigits; d++) {
+                    scale *= 10;
+                }
+
+                long carry = group;
+
+                for (int i = 0; i < count; i++) {
+                    long t = (long) limbs[i] * scale + carry;
+                    carry = t / BigInteger.BASE;
+                    limbs[i] = (int) (t - carry * BigInteger.BASE);
+                }
+
+                limbs[count] = (int) carry;
+            }
+
+            return new BigInteger(negative, limbs, count + 1);
+        }
+
+        private void grow() {
+            int[] grown = new int[Math.max(count * 2, 16)];
+            System.arraycopy(groups, 0, grown, 0, count);
+            groups = grown;
+        }
+
+        private static int digitValue(char ch) {
+            if (ch >= '0' && ch <= '9') {
+                return ch - '0';
+            } else if (Character.isDigit(ch)) {
+                return Character.getNumericValue(ch);
+            }
+
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Produces the decimal text of an integer one buffer at a time, most
+     * significant digit first.
+     */
+    static class Emitter {
+
+        private final BigInteger integer;
+
+        /**
+         * Next limb to emit, -1 once everything has been written
+         */
+        private int limb;
+        private boolean started;
+
+        /**
+         * Text of the current limb, right-aligned, starting at index first. One
+         * extra slot holds the sign in front of the top limb.
+         */
+        private final char[] chunk = new char[BigInteger.BASE_DIGITS + 1];
+        private int first;
+
+        Emitter(BigInteger integer) {
+            this.integer = integer;
+            this.limb = integer.length - 1;
+        }
+
+        /**
+         * Fills the buffer with the next digits. Returns false if there was
+         * nothing left to write.
+         */
+        boolean fill(CharBuffer buffer) {
+            boolean wrote = false;
+
+            while (buffer.remaining() >= chunk.length && next()) {
+                buffer.put(chunk, first, chunk.length - first);
+                wrote = true;
+            }
+
+            return wrote;
+        }
+
+        boolean fill(ByteBuffer buffer) {
+            boolean wrote = false;
+
+            while (buffer.remaining() >= chunk.length && next()) {
+                for (int i = first; i < chunk.length; i++) {
+                    buffer.put((byte) chunk[i]);
+                }
+                wrote = true;
+            }
+
+            return wrote;
+        }
+
+        /**
+         * Produces the next chunk of text: the sign and the top limb first, then
+         * nine digits per limb.
+         */
+        private boolean next() {
+            if (!started) {
+                started = true;
+
+                if (integer.length == 0) {
+                    chunk[chunk.length - 1] = '0';
+                    first = chunk.length - 1;
+                    return true;
+                }
+
+                int top = integer.limbs[limb--];
+                first = BigInteger.writeLimb(top, BigInteger.digitCount(top), chunk, chunk.length);
+
+                if (integer.negative) {
+                    chunk[--first] = '-';
+                }
+
+                return true;
+            }
+
+            if (limb < 0) {
+                return false;
+            }
+
+            first = BigInteger.writeLimb(integer.limbs[limb--], BigInteger.BASE_DIGITS, chunk, chunk.length);
+            return true;
+        }
+    }
+}
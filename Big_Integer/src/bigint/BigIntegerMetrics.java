@@ -0,0 +1,380 @@
+package bigint;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class counts and times the calls to BigInteger.parse, add, multiply and
+ * toString. Per operation it keeps the number of calls, a histogram of operand
+ * sizes in limbs, a histogram of latencies in nanoseconds and the number of
+ * bytes allocated by the calling thread during the calls.
+ *
+ * Metrics are off unless the JVM is started with -Dbigint.metrics=true. The
+ * switch is a static final field, so when it is off the JIT removes every
+ * probe and the arithmetic runs exactly as before. When it is on, the
+ * counters are published as the MXBean bigint:type=BigIntegerMetrics, and every
+ * call also emits a bigint.Operation event to Java Flight Recorder, which
+ * records it only if that event is enabled in the recording settings.
+ *
+ * Only calls from outside the library are counted. Its own arithmetic, for
+ * instance the additions done by Toom-3 or by division and the products in pow,
+ * modPow and ProductTree, goes through unprobed implementations. Products that
+ * BigIntegerCache or BigIntegerBatch.multiplyAll compute on a caller's behalf
+ * count as that caller's multiply.
+ *
+ */
+public class BigIntegerMetrics {
+
+    /**
+     * True if the operations are measured, set from the system property
+     * bigint.metrics
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("bigint.metrics");
+
+    /**
+     * The measured operations
+     */
+    public enum Operation {
+        PARSE, ADD, MULTIPLY, TO_STRING
+    }
+
+    /**
+     * Operand sizes are counted in buckets of powers of two: bucket k holds
+     * sizes in [2^(k-1), 2^k) limbs, bucket 0 the zero-length operands.
+     */
+    static final int SIZE_BUCKETS = 33;
+
+    /**
+     * Latencies are counted in 8 linear sub-buckets per power of two, so a
+     * percentile is accurate to within 12.5%.
+     */
+    static final int SUB_BUCKETS = 8;
+
+    static final int LATENCY_BUCKETS = SUB_BUCKETS * 62;
+
+    private static final Map<Operation, Stats> STATS = new EnumMap<>(Operation.class);
+
+    private static final com.sun.management.ThreadMXBean THREADS;
+
+    static {
+        for (Operation operation : Operation.values()) {
+            STATS.put(operation, new Stats());
+        }
+
+        THREADS = ENABLED ? allocationCounter() : null;
+
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBeanImpl(),
+                        new ObjectName("bigint:type=BigIntegerMetrics"));
+            } catch (JMException e) {
+                // already registered by another class loader, counting still works
+            }
+        }
+    }
+
+    private BigIntegerMetrics() {
+    }
+
+    /**
+     * Returns the number of calls to an operation.
+     *
+     * @param operation Operation
+     * @return Number of calls since start-up or the last reset
+     */
+    public static long calls(Operation operation) {
+        return STATS.get(operation).calls.sum();
+    }
+
+    /**
+     * Returns the bytes allocated by the calling threads during the calls to an
+     * operation, or 0 if the JVM cannot measure it.
+     *
+     * @param operation Operation
+     * @return Bytes allocated since start-up or the last reset
+     */
+    public static long allocatedBytes(Operation operation) {
+        return STATS.get(operation).bytes.sum();
+    }
+
+    /**
+     * Returns a latency percentile of an operation, rounded down to its
+     * histogram bucket.
+     *
+     * @param operation  Operation
+     * @param percentile Percentile between 0 and 100, for instance 99.9
+     * @return Latency in nanoseconds, 0 if there were no calls
+     */
+    public static long latencyPercentile(Operation operation, double percentile) {
+        AtomicLongArray latencies = STATS.get(operation).latencies;
+        long[] counts = new long[LATENCY_BUCKETS];
+        long total = 0;
+
+        for (int b = 0; b < counts.length; b++) {
+            counts[b] = latencies.get(b);
+            total += counts[b];
+        }
+
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+
+            if (seen >= Math.max(rank, 1)) {
+                return bucketValue(b);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns the histogram of operand sizes of an operation. Element k counts
+     * the calls whose largest operand had 2^(k-1) to 2^k - 1 limbs of nine
+     * digits; element 0 counts zero operands.
+     *
+     * @param operation Operation
+     * @return New array of SIZE_BUCKETS counts
+     */
+    public static long[] operandSizeHistogram(Operation operation) {
+        AtomicLongArray sizes = STATS.get(operation).sizes;
+        long[] counts = new long[SIZE_BUCKETS];
+
+        for (int b = 0; b < counts.length; b++) {
+            counts[b] = sizes.get(b);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Sets every counter and histogram back to zero.
+     */
+    public static void reset() {
+        for (Stats stats : STATS.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Starts measuring a call. Callers check ENABLED first, so that no probe is
+     * created when metrics are off.
+     *
+     * @param operation Operation being called
+     * @param limbs     Length of its largest operand in limbs
+     */
+    static Probe start(Operation operation, int limbs) {
+        return new Probe(operation, limbs);
+    }
+
+    static int sizeBucket(int limbs) {
+        return 32 - Integer.numberOfLeadingZeros(limbs);
+    }
+
+    static int latencyBucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int bucket = (exponent - 2) * SUB_BUCKETS + (int) ((nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1));
+        return Math.min(bucket, LATENCY_BUCKETS - 1);
+    }
+
+    /**
+     * Smallest latency that falls into a bucket.
+     */
+    static long bucketValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + 2;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 3);
+    }
+
+    /**
+     * The JVM's per-thread allocation counter, or null if it has none
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) threads;
+        }
+
+        return null;
+    }
+
+    private static long threadAllocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Counters of one operation
+     */
+    private static class Stats {
+
+        final LongAdder calls = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final AtomicLongArray sizes = new AtomicLongArray(SIZE_BUCKETS);
+        final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+
+        void reset() {
+            calls.reset();
+            bytes.reset();
+
+            for (int b = 0; b < SIZE_BUCKETS; b++) {
+                sizes.set(b, 0);
+            }
+            for (int b = 0; b < LATENCY_BUCKETS; b++) {
+                latencies.set(b, 0);
+            }
+        }
+    }
+
+    /**
+     * One call being measured, from start to stop.
+     */
+    static class Probe {
+
+        private final Operation operation;
+        private final int limbs;
+        private final OperationEvent event = new OperationEvent();
+        private final long bytes;
+        private final long start;
+
+        Probe(Operation operation, int limbs) {
+            this.operation = operation;
+            this.limbs = limbs;
+            this.event.begin();
+            this.bytes = threadAllocatedBytes();
+            this.start = System.nanoTime();
+        }
+
+        void stop() {
+            long nanos = System.nanoTime() - start;
+            long allocated = threadAllocatedBytes() - bytes;
+            Stats stats = STATS.get(operation);
+
+            stats.calls.increment();
+            stats.bytes.add(allocated);
+            stats.sizes.incrementAndGet(sizeBucket(limbs));
+            stats.latencies.incrementAndGet(latencyBucket(nanos));
+
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.operation = operation.name();
+                event.operandLimbs = limbs;
+                event.allocated = allocated;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Flight Recorder event for one call, with its duration
+     */
+    @Name("bigint.Operation")
+    @Label("BigInteger Operation")
+    @Category("bigint")
+    @StackTrace(false)
+    static class OperationEvent extends jdk.jfr.Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Operand Limbs")
+        int operandLimbs;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+    }
+
+    /**
+     * JMX view of the counters, per operation name
+     */
+    public interface BigIntegerMetricsMXBean {
+
+        Map<String, Long> getCalls();
+
+        Map<String, Long> getAllocatedBytes();
+
+        Map<String, Long> getLatencyP50Nanos();
+
+        Map<String, Long> getLatencyP99Nanos();
+
+        Map<String, Long> getLatencyP999Nanos();
+
+        Map<String, long[]> getOperandSizeHistograms();
+
+        void reset();
+    }
+
+    private static class MXBeanImpl implements BigIntegerMetricsMXBean {
+
+        public Map<String, Long> getCalls() {
+            Map<String, Long> values = new java.util.TreeMap<>();
+            for (Operation operation : Operation.values()) {
+                values.put(operation.name(), calls(operation));
+            }
+            return values;
+        }
+
+        public Map<String, Long> getAllocatedBytes() {
+            Map<String, Long> values = new java.util.TreeMap<>();
+            for (Operation operation : Operation.values()) {
+                values.put(operation.name(), allocatedBytes(operation));
+            }
+            return values;
+        }
+
+        public Map<String, Long> getLatencyP50Nanos() {
+            return percentiles(50);
+        }
+
+        public Map<String, Long> getLatencyP99Nanos() {
+            return percentiles(99);
+        }
+
+        public Map<String, Long> getLatencyP999Nanos() {
+            return percentiles(99.9);
+        }
+
+        public Map<String, long[]> getOperandSizeHistograms() {
+            Map<String, long[]> values = new java.util.TreeMap<>();
+            for (Operation operation : Operation.values()) {
+                values.put(operation.name(), operandSizeHistogram(operation));
+            }
+            return values;
+        }
+
+        public void reset() {
+            BigIntegerMetrics.reset();
+        }
+
+        private static Map<String, Long> percentiles(double percentile) {
+            Map<String, Long> values = new java.util.TreeMap<>();
+            for (Operation operation : Operation.values()) {
+                values.put(operation.name(), latencyPercentile(operation, percentile));
+            }
+            return values;
+        }
+    }
+}
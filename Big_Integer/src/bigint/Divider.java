@@ -0,0 +1,300 @@
+package bigint;
+
+/**
+ * This class implements division of magnitudes for BigInteger.divide,
+ * BigInteger.remainder and BigInteger.modPow.
+ *
+ * Short divisors use Knuth's Algorithm D on base 10^9 limbs. Once the divisor
+ * has at least BURNIKEL_ZIEGLER_THRESHOLD limbs, and the quotient at least
+ * BURNIKEL_ZIEGLER_OFFSET limbs, the recursive Burnikel-Ziegler algorithm is
+ * used instead. It turns one big division into a few half-size divisions and
+ * multiplications, so its cost follows that of Multiplier.
+ *
+ */
+public class Divider {
+
+    /**
+     * Smallest divisor length (in limbs) for which Burnikel-Ziegler is used
+     */
+    public static int BURNIKEL_ZIEGLER_THRESHOLD = 80;
+
+    /**
+     * Smallest difference between dividend and divisor lengths (in limbs) for
+     * which Burnikel-Ziegler is used
+     */
+    public static int BURNIKEL_ZIEGLER_OFFSET = 40;
+
+    private static final int BASE = BigInteger.BASE;
+
+    private Divider() {
+    }
+
+    /**
+     * Divides two non-negative integers.
+     *
+     * @param a Dividend, must not be negative
+     * @param b Divisor, must be positive
+     * @return { a / b, a % b }
+     */
+    static BigInteger[] divideAndRemainder(BigInteger a, BigInteger b) {
+        if (BigInteger.compareMagnitudes(a.limbs, a.length, b.limbs, b.length) < 0) {
+            return new BigInteger[] { BigInteger.ZERO, a };
+        }
+
+        if (b.length >= BURNIKEL_ZIEGLER_THRESHOLD && a.length - b.length >= BURNIKEL_ZIEGLER_OFFSET) {
+            return burnikelZiegler(a, b);
+        }
+
+        return knuth(a, b);
+    }
+
+    /**
+     * Knuth's Algorithm D (TAOCP vol. 2, 4.3.1) in base 10^9.
+     */
+    static BigInteger[] knuth(BigInteger a, BigInteger b) {
+        int alen = a.length, blen = b.length;
+
+        if (BigInteger.compareMagnitudes(a.limbs, alen, b.limbs, blen) < 0) {
+            return new BigInteger[] { BigInteger.ZERO, a };
+        }
+
+        if (blen == 1) {
+            int[] q = new int[alen];
+            long rem = divideSmall(a.limbs, alen, b.limbs[0], q);
+            return new BigInteger[] { new BigInteger(false, q, alen),
+                    new BigInteger(false, new int[] { (int) rem }, 1) };
+        }
+
+        // normalise so the top limb of the divisor is at least BASE / 2
+        int d = BASE / (b.limbs[blen - 1] + 1);
+        int[] un = multiplySmall(a.limbs, alen, d, alen + 1);
+        int[] vn = multiplySmall(b.limbs, blen, d, blen);
+        long vtop = vn[blen - 1];
+        long vnext = vn[blen - 2];
+        int[] q = new int[alen - blen + 1];
+
+        for (int j = alen - blen; j >= 0; j--) {
+            // estimate the quotient limb from the top two limbs, then correct it
+            long num = (long) un[j + blen] * BASE + un[j + blen - 1];
+            long qhat = num / vtop;
+            long rhat = num - qhat * vtop;
+
+            while (qhat >= BASE || qhat * vnext > rhat * BASE + un[j + blen - 2]) {
+                qhat--;
+                rhat += vtop;
+
+                if (rhat >= BASE) {
+                    break;
+                }
+            }
+
+            // un[j .. j+blen] -= qhat * vn
+            long carry = 0;
+            int borrow = 0;
+
+            for (int i = 0; i < blen; i++) {
+                long p = qhat * vn[i] + carry;
+                carry = p / BASE;
+                int t = un[i + j] - (int) (p - carry * BASE) - borrow;
+                borrow = t < 0 ? 1 : 0;
+                un[i + j] = t + borrow * BASE;
+            }
+
+            long top = un[j + blen] - carry - borrow;
+
+            if (top < 0) {
+                // qhat was one too large, add the divisor back
+                qhat--;
+                int c = 0;
+
+                for (int i = 0; i < blen; i++) {
+                    int s = un[i + j] + vn[i] + c;
+                    c = s >= BASE ? 1 : 0;
+                    un[i + j] = s - c * BASE;
+                }
+
+                top += c;
+            }
+
+            un[j + blen] = (int) top;
+            q[j] = (int) qhat;
+        }
+
+        int[] r = new int[blen];
+        divideSmall(un, blen, d, r);
+
+        return new BigInteger[] { new BigInteger(false, q, q.length), new BigInteger(false, r, blen) };
+    }
+
+    /**
+     * Burnikel-Ziegler division ("Fast Recursive Division", MPI-I-98-1-022),
+     * with the layout of java.math.MutableBigInteger.
+     */
+    static BigInteger[] burnikelZiegler(BigInteger a, BigInteger b) {
+        int s = b.length;
+
+        // block length n = j * m, where m is a power of two and j <= threshold
+        int m = 1 << (32 - Integer.numberOfLeadingZeros(s / BURNIKEL_ZIEGLER_THRESHOLD));
+        int j = (s + m - 1) / m;
+        int n = j * m;
+
+        // normalise b to exactly n limbs with a top limb of at least BASE / 2
+        int d = BASE / (b.limbs[s - 1] + 1);
+        BigInteger bn = shiftLeft(Multiplier.multiplySmall(b, d), n - s);
+        BigInteger an = shiftLeft(Multiplier.multiplySmall(a, d), n - s);
+
+        // t blocks of n limbs hold a with a spare limb, so the top block is below b
+        int t = Math.max(2, (an.length + n) / n);
+
+        BigInteger z = shiftRight(an, (t - 2) * n);
+        BigInteger q = BigInteger.ZERO;
+        BigInteger r = null;
+
+        for (int i = t - 2; i >= 0; i--) {
+            BigInteger[] qr = divide2n1n(z, bn);
+            q = BigInteger.sum(shiftLeft(q, n), qr[0]);
+            r = qr[1];
+
+            if (i > 0) {
+                z = BigInteger.sum(shiftLeft(r, n), block(an, i - 1, n));
+            }
+        }
+
+        // undo the normalisation of the remainder
+        r = Multiplier.divideExactSmall(shiftRight(r, n - s), d);
+        return new BigInteger[] { q, r };
+    }
+
+    /**
+     * Divides a 2n-limb number by an n-limb number, where a < b * BASE^n.
+     */
+    private static BigInteger[] divide2n1n(BigInteger a, BigInteger b) {
+        int n = b.length;
+
+        if (n % 2 != 0 || n < BURNIKEL_ZIEGLER_THRESHOLD) {
+            return knuth(a, b);
+        }
+
+        int half = n / 2;
+
+        // a = [a123, a4]
+        BigInteger[] qr1 = divide3n2n(shiftRight(a, half), b);
+        BigInteger[] qr2 = divide3n2n(BigInteger.sum(shiftLeft(qr1[1], half), lower(a, half)), b);
+
+        return new BigInteger[] { BigInteger.sum(shiftLeft(qr1[0], half), qr2[0]), qr2[1] };
+    }
+
+    /**
+     * Divides a 3n-limb number by a 2n-limb number, where a < b * BASE^n.
+     */
+    private static BigInteger[] divide3n2n(BigInteger a, BigInteger b) {
+        int n = b.length / 2;
+
+        // a = [a1, a2, a3], b = [b1, b2]
+        BigInteger a1 = shiftRight(a, 2 * n);
+        BigInteger a12 = shiftRight(a, n);
+        BigInteger b1 = shiftRight(b, n);
+        BigInteger b2 = lower(b, n);
+
+        BigInteger q;
+        BigInteger r;
+
+        if (BigInteger.compareMagnitudes(a1.limbs, a1.length, b1.limbs, b1.length) < 0) {
+            BigInteger[] qr = divide2n1n(a12, b1);
+            q = qr[0];
+            r = qr[1];
+        } else {
+            // q = BASE^n - 1, r = a12 - q * b1
+            q = BigInteger.difference(shiftLeft(BigInteger.ONE, n), BigInteger.ONE);
+            r = BigInteger.sum(BigInteger.difference(a12, shiftLeft(b1, n)), b1);
+        }
+
+        // r = r * BASE^n + a3 - q * b2, corrected by at most two additions of b
+        r = BigInteger.difference(BigInteger.sum(shiftLeft(r, n), lower(a, n)), BigInteger.product(q, b2));
+
+        while (r.negative) {
+            r = BigInteger.sum(r, b);
+            q = BigInteger.difference(q, BigInteger.ONE);
+        }
+
+        return new BigInteger[] { q, r };
+    }
+
+    /**
+     * Returns x * BASE^k.
+     */
+    static BigInteger shiftLeft(BigInteger x, int k) {
+        if (x.length == 0 || k == 0) {
+            return x;
+        }
+
+        int[] limbs = new int[x.length + k];
+        System.arraycopy(x.limbs, 0, limbs, k, x.length);
+        return new BigInteger(x.negative, limbs, limbs.length);
+    }
+
+    /**
+     * Returns x / BASE^k, rounded towards zero.
+     */
+    static BigInteger shiftRight(BigInteger x, int k) {
+        if (k >= x.length) {
+            return BigInteger.ZERO;
+        }
+
+        int[] limbs = new int[x.length - k];
+        System.arraycopy(x.limbs, k, limbs, 0, limbs.length);
+        return new BigInteger(x.negative, limbs, limbs.length);
+    }
+
+    /**
+     * Returns |x| mod BASE^k.
+     */
+    static BigInteger lower(BigInteger x, int k) {
+        int len = Math.min(k, x.length);
+        int[] limbs = new int[len];
+        System.arraycopy(x.limbs, 0, limbs, 0, len);
+        return new BigInteger(false, limbs, len);
+    }
+
+    /**
+     * Returns the index-th block of n limbs of x.
+     */
+    private static BigInteger block(BigInteger x, int index, int n) {
+        return lower(shiftRight(x, index * n), n);
+    }
+
+    /**
+     * Divides x[0 .. len) by a single limb into q and returns the remainder.
+     */
+    static long divideSmall(int[] x, int len, long divisor, int[] q) {
+        long rem = 0;
+
+        for (int i = len - 1; i >= 0; i--) {
+            long t = rem * BASE + x[i];
+            q[i] = (int) (t / divisor);
+            rem = t - q[i] * divisor;
+        }
+
+        return rem;
+    }
+
+    /**
+     * Returns x[0 .. len) * m in a new array of the given length.
+     */
+    private static int[] multiplySmall(int[] x, int len, int m, int resultLength) {
+        int[] result = new int[resultLength];
+        long carry = 0;
+
+        for (int i = 0; i < len; i++) {
+            long t = (long) x[i] * m + carry;
+            carry = t / BASE;
+            result[i] = (int) (t - carry * BASE);
+        }
+
+        if (len < resultLength) {
+            result[len] = (int) carry;
+        }
+
+        return result;
+    }
+}
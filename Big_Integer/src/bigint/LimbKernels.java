@@ -0,0 +1,80 @@
+package bigint;
+
+/**
+ * This class holds the inner loops of limb addition, subtraction and
+ * comparison, which dominate add and subtract on long integers. The methods
+ * here are the scalar versions. VectorLimbKernels overrides them with Vector
+ * API (SIMD) versions, and is used when the JVM runs with
+ * --add-modules jdk.incubator.vector. It is loaded reflectively, so without that
+ * module everything still works on the scalar loops.
+ *
+ * Setting the system property bigint.vector to false forces the scalar loops.
+ *
+ */
+class LimbKernels {
+
+    static final LimbKernels INSTANCE = load();
+
+    static final int BASE = BigInteger.BASE;
+
+    /**
+     * Sets r[roff .. roff+len) to a[aoff ..] + b[boff ..] + carry and returns
+     * the carry out of the last limb.
+     */
+    int add(int[] a, int aoff, int[] b, int boff, int[] r, int roff, int len, int carry) {
+        for (int i = 0; i < len; i++) {
+            int s = a[aoff + i] + b[boff + i] + carry;
+            carry = s >= BASE ? 1 : 0;
+            r[roff + i] = s - carry * BASE;
+        }
+
+        return carry;
+    }
+
+    /**
+     * Sets r[roff .. roff+len) to a[aoff ..] - b[boff ..] - borrow and returns
+     * the borrow out of the last limb.
+     */
+    int subtract(int[] a, int aoff, int[] b, int boff, int[] r, int roff, int len, int borrow) {
+        for (int i = 0; i < len; i++) {
+            int d = a[aoff + i] - b[boff + i] - borrow;
+            borrow = d < 0 ? 1 : 0;
+            r[roff + i] = d + borrow * BASE;
+        }
+
+        return borrow;
+    }
+
+    /**
+     * Compares a[0 .. len) and b[0 .. len), most significant limb first.
+     *
+     * @return Negative, zero or positive as a is less than, equal to or greater
+     *         than b
+     */
+    int compare(int[] a, int[] b, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return a[i] > b[i] ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    String name() {
+        return "scalar";
+    }
+
+    private static LimbKernels load() {
+        if (!Boolean.parseBoolean(System.getProperty("bigint.vector", "true"))) {
+            return new LimbKernels();
+        }
+
+        try {
+            return (LimbKernels) Class.forName("bigint.VectorLimbKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // jdk.incubator.vector is not in the boot layer
+            return new LimbKernels();
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package bigint;
+
+/**
+ * This class multiplies residues modulo a fixed odd modulus in Montgomery form.
+ *
+ * The modulus and the residues are converted once to binary, 32 bits per
+ * word, with R = 2^(32k) for a k-word modulus. Carries then come from shifts
+ * rather than divisions by 10^9. Each multiplication (the CIOS method) runs
+ * over fixed-size word arrays, so an exponentiation allocates nothing per step.
+ * Only the entry into and the exit from Montgomery form deal with base 10^9
+ * limbs.
+ *
+ * Montgomery reduction needs a modulus coprime to 2^32, so even moduli go
+ * through BarrettReducer.
+ *
+ */
+class MontgomeryReducer {
+
+    private static final long MASK = 0xffffffffL;
+
+    final BigInteger modulus;
+
+    /**
+     * Length of the modulus in 32-bit words
+     */
+    final int k;
+
+    private final int[] m;
+
+    /**
+     * -modulus^-1 mod 2^32
+     */
+    private final long mInv;
+
+    /**
+     * R^2 mod modulus, in binary, to move values into Montgomery form
+     */
+    private final int[] r2;
+
+    /**
+     * Accumulator of k + 2 words
+     */
+    private final int[] t;
+
+    /**
+     * Double-length product of 2k + 1 words for square
+     */
+    private final int[] w;
+
+    /**
+     * Returns true if the modulus can be used in Montgomery form.
+     */
+    static boolean supports(BigInteger modulus) {
+        return (modulus.limbs[0] & 1) != 0;
+    }
+
+    MontgomeryReducer(BigInteger modulus) {
+        this.modulus = modulus;
+        this.m = toBinary(modulus);
+        this.k = m.length;
+        this.mInv = -inverse(m[0] & MASK) & MASK;
+        this.t = new int[k + 2];
+        this.w = new int[2 * k + 1];
+
+        // R^2 = 2^(64k), reduced with the decimal divider once
+        BigInteger r = BigInteger.valueOf(1L << 32);
+        BigInteger r2 = BigInteger.ONE;
+        for (int i = 0; i < 2 * k; i++) {
+            r2 = BigInteger.product(r2, r);
+        }
+        this.r2 = words(BigInteger.remainder(r2, modulus));
+    }
+
+    /**
+     * Returns x * R mod modulus as k binary words, for 0 <= x < modulus.
+     */
+    int[] toMontgomery(BigInteger x) {
+        int[] result = new int[k];
+        multiply(words(x), r2, result);
+        return result;
+    }
+
+    /**
+     * Returns the ordinary value of a residue in Montgomery form.
+     */
+    BigInteger fromMontgomery(int[] x) {
+        int[] one = new int[k];
+        one[0] = 1;
+        int[] result = new int[k];
+        multiply(x, one, result);
+        return fromBinary(result);
+    }
+
+    /**
+     * Sets out = a * b / R mod modulus. All three arrays have k words, and out
+     * may be the same array as a or b.
+     */
+    void multiply(int[] a, int[] b, int[] out) {
+        java.util.Arrays.fill(t, 0);
+        long m0 = m[0] & MASK;
+
+        for (int i = 0; i < k; i++) {
+            // t += a[i] * b, every step fits in 64 unsigned bits
+            long ai = a[i] & MASK;
+            long carry = 0;
+
+            for (int j = 0; j < k; j++) {
+                long s = (t[j] & MASK) + ai * (b[j] & MASK) + carry;
+                t[j] = (int) s;
+                carry = s >>> 32;
+            }
+
+            long s = (t[k] & MASK) + carry;
+            t[k] = (int) s;
+            t[k + 1] = (int) (s >>> 32);
+
+            // t = (t + u * m) / 2^32, with u chosen to clear the lowest word
+            long u = (t[0] & MASK) * mInv & MASK;
+            carry = ((t[0] & MASK) + u * m0) >>> 32;
+
+            for (int j = 1; j < k; j++) {
+                s = (t[j] & MASK) + u * (m[j] & MASK) + carry;
+                t[j - 1] = (int) s;
+                carry = s >>> 32;
+            }
+
+            s = (t[k] & MASK) + carry;
+            t[k - 1] = (int) s;
+            t[k] = t[k + 1] + (int) (s >>> 32);
+        }
+
+        finish(out);
+    }
+
+    /**
+     * Sets out = a * a / R mod modulus. Both arrays have k words and may be the
+     * same array.
+     *
+     * The square is formed in full first, with each cross product a[i] * a[j]
+     * computed once and doubled, and then reduced word by word. That is about
+     * 1.5 k^2 word products against 2 k^2 for multiply(a, a, out).
+     */
+    void square(int[] a, int[] out) {
+        java.util.Arrays.fill(w, 0);
+
+        // cross products a[i] * a[j], i < j
+        for (int i = 0; i < k; i++) {
+            long ai = a[i] & MASK;
+            long carry = 0;
+
+            for (int j = i + 1; j < k; j++) {
+                long s = (w[i + j] & MASK) + ai * (a[j] & MASK) + carry;
+                w[i + j] = (int) s;
+                carry = s >>> 32;
+            }
+
+            w[i + k] = (int) carry;
+        }
+
+        // double them, then add the squares a[i]^2
+        int top = 0;
+        for (int i = 0; i < 2 * k; i++) {
+            int v = w[i];
+            w[i] = v << 1 | top;
+            top = v >>> 31;
+        }
+
+        long carry = 0;
+        for (int i = 0; i < k; i++) {
+            long ai = a[i] & MASK;
+            long p = ai * ai;
+            long s = (w[2 * i] & MASK) + (p & MASK) + carry;
+            w[2 * i] = (int) s;
+            s = (w[2 * i + 1] & MASK) + (p >>> 32) + (s >>> 32);
+            w[2 * i + 1] = (int) s;
+            carry = s >>> 32;
+        }
+
+        // w += u * m * 2^(32i), with u chosen to clear word i
+        for (int i = 0; i < k; i++) {
+            long u = (w[i] & MASK) * mInv & MASK;
+            carry = 0;
+
+            for (int j = 0; j < k; j++) {
+                long s = (w[i + j] & MASK) + u * (m[j] & MASK) + carry;
+                w[i + j] = (int) s;
+                carry = s >>> 32;
+            }
+
+            for (int j = i + k; carry != 0; j++) {
+                long s = (w[j] & MASK) + carry;
+                w[j] = (int) s;
+                carry = s >>> 32;
+            }
+        }
+
+        System.arraycopy(w, k, t, 0, k + 1);
+        finish(out);
+    }
+
+    /**
+     * Copies the k + 1 word result in t to out, after bringing it from [0, 2 *
+     * modulus) down to [0, modulus).
+     */
+    private void finish(int[] out) {
+        if (t[k] != 0 || compareUnsigned(t, m, k) >= 0) {
+            long borrow = 0;
+
+            for (int j = 0; j < k; j++) {
+                long d = (t[j] & MASK) - (m[j] & MASK) - borrow;
+                t[j] = (int) d;
+                borrow = d < 0 ? 1 : 0;
+            }
+        }
+
+        System.arraycopy(t, 0, out, 0, k);
+    }
+
+    /**
+     * Binary words of x, padded to the length of the modulus.
+     */
+    private int[] words(BigInteger x) {
+        int[] binary = toBinary(x);
+        int[] result = new int[k];
+        System.arraycopy(binary, 0, result, 0, Math.min(binary.length, k));
+        return result;
+    }
+
+    /**
+     * Converts a magnitude to binary, 32 bits per word, least significant word
+     * first, without leading zero words.
+     */
+    static int[] toBinary(BigInteger x) {
+        int[] quotient = new int[x.length];
+        System.arraycopy(x.limbs, 0, quotient, 0, x.length);
+        int len = x.length;
+
+        int[] words = new int[len + 1];
+        int count = 0;
+
+        // repeated division by 2^16, two chunks per word
+        while (len > 0) {
+            int low = (int) Divider.divideSmall(quotient, len, 1 << 16, quotient);
+            while (len > 0 && quotient[len - 1] == 0) {
+                len--;
+            }
+
+            int high = (int) Divider.divideSmall(quotient, len, 1 << 16, quotient);
+            while (len > 0 && quotient[len - 1] == 0) {
+                len--;
+            }
+
+            words[count++] = high << 16 | low;
+        }
+
+        int[] result = new int[count];
+        System.arraycopy(words, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Converts binary words, least significant first, back to a BigInteger.
+     */
+    static BigInteger fromBinary(int[] words) {
+        int[] quotient = words.clone();
+        int len = quotient.length;
+        int[] limbs = new int[len * 32 / 29 + 2];
+        int count = 0;
+
+        // repeated division by 10^9
+        while (len > 0) {
+            long rem = 0;
+
+            for (int i = len - 1; i >= 0; i--) {
+                long cur = rem << 32 | (quotient[i] & MASK);
+                long q = cur / BigInteger.BASE;
+                quotient[i] = (int) q;
+                rem = cur - q * BigInteger.BASE;
+            }
+
+            limbs[count++] = (int) rem;
+
+            while (len > 0 && quotient[len - 1] == 0) {
+                len--;
+            }
+        }
+
+        return new BigInteger(false, limbs, count);
+    }
+
+    private static int compareUnsigned(int[] a, int[] b, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return Integer.compareUnsigned(a[i], b[i]);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Inverse of an odd word modulo 2^32, by Newton iteration.
+     */
+    private static long inverse(long a) {
+        long x = a; // correct to 3 bits
+
+        for (int i = 0; i < 4; i++) {
+            x = x * (2 - a * x) & MASK;
+        }
+
+        return x;
+    }
+}
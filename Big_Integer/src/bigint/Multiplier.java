@@ -0,0 +1,508 @@
+package bigint;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class implements the multiplication engine behind BigInteger.multiply.
+ * Magnitudes are limb arrays in base 10^9, least significant limb first, as
+ * stored in BigInteger.
+ *
+ * The algorithm is picked from the size of the smaller operand: schoolbook
+ * below KARATSUBA_THRESHOLD limbs, Karatsuba below TOOM3_THRESHOLD limbs,
+ * Toom-3 below NTT_THRESHOLD limbs and a number-theoretic transform above that
+ * (see NttMultiplier). Products too long for one transform fall back to Toom-3,
+ * whose sub-products are again small enough for the transform. Very unbalanced
+ * operands are cut into slices the size of the smaller one first, so the
+ * splitting algorithms always see operands of similar length.
+ *
+ * A parallel multiplication (see BigInteger.parallelMultiply) runs the same
+ * algorithms, but forks the independent sub-products of every split, and the
+ * three prime transforms of the NTT, as ForkJoinPool tasks until the operands
+ * drop below PARALLEL_THRESHOLD limbs.
+ *
+ */
+public class Multiplier {
+
+    /**
+     * Smallest operand length (in limbs) for which Karatsuba is used
+     */
+    public static int KARATSUBA_THRESHOLD = 48;
+
+    /**
+     * Smallest operand length (in limbs) for which Toom-3 is used
+     */
+    public static int TOOM3_THRESHOLD = 240;
+
+    /**
+     * Smallest operand length (in limbs) for which the number-theoretic
+     * transform is used
+     */
+    public static int NTT_THRESHOLD = 2000;
+
+    /**
+     * Smallest operand length (in limbs) for which a parallel multiplication
+     * still forks its sub-products, smaller ones run sequentially
+     */
+    public static int PARALLEL_THRESHOLD = 1000;
+
+    private static final int BASE = BigInteger.BASE;
+
+    private Multiplier() {
+    }
+
+    /**
+     * Returns the product of two magnitudes in a new array of exactly alen + blen
+     * limbs. DOES NOT MODIFY either of the input arrays.
+     *
+     * @param a    First magnitude
+     * @param alen Number of limbs of a in use
+     * @param b    Second magnitude
+     * @param blen Number of limbs of b in use
+     * @return Product, least significant limb first
+     */
+    static int[] multiply(int[] a, int alen, int[] b, int blen) {
+        return multiply(a, 0, alen, b, 0, blen, false);
+    }
+
+    /**
+     * Returns the product of a[aoff .. aoff+alen) and b[boff .. boff+blen) in a
+     * new array of exactly alen + blen limbs. A parallel multiplication must be
+     * called from inside a ForkJoinPool.
+     */
+    static int[] multiply(int[] a, int aoff, int alen, int[] b, int boff, int blen, boolean parallel) {
+        int[] result = new int[alen + blen];
+
+        if (alen == 0 || blen == 0) {
+            return result;
+        }
+
+        multiplyInto(a, aoff, alen, b, boff, blen, result, 0, parallel);
+        return result;
+    }
+
+    /**
+     * Adds the product of a[aoff .. aoff+alen) and b[boff .. boff+blen) into
+     * result starting at roff. The caller guarantees that result is large enough
+     * to absorb the final carry.
+     */
+    private static void multiplyInto(int[] a, int aoff, int alen, int[] b, int boff, int blen, int[] result,
+            int roff, boolean parallel) {
+        if (alen < blen) {
+            int[] t = a;
+            a = b;
+            b = t;
+            int to = aoff;
+            aoff = boff;
+            boff = to;
+            int tl = alen;
+            alen = blen;
+            blen = tl;
+        }
+
+        parallel = parallel && blen >= PARALLEL_THRESHOLD;
+
+        // below four limbs a split no longer shrinks the operands
+        if (blen < Math.max(KARATSUBA_THRESHOLD, 4)) {
+            if (isSquare(a, aoff, alen, b, boff, blen)) {
+                schoolbookSquare(a, aoff, alen, result, roff);
+            } else {
+                schoolbook(a, aoff, alen, b, boff, blen, result, roff);
+            }
+        } else if (2 * blen <= alen && !useNtt(alen, blen)) {
+            unbalanced(a, aoff, alen, b, boff, blen, result, roff, parallel);
+        } else {
+            int[] product;
+
+            if (blen < TOOM3_THRESHOLD) {
+                product = karatsuba(a, aoff, alen, b, boff, blen, parallel);
+            } else if (useNtt(alen, blen)) {
+                product = NttMultiplier.multiply(a, aoff, alen, b, boff, blen, parallel);
+            } else {
+                product = toom3(a, aoff, alen, b, boff, blen, parallel);
+            }
+
+            addInto(result, roff, product, alen + blen);
+        }
+    }
+
+    /**
+     * Returns true if the NTT should multiply the operands in one transform. An
+     * unbalanced product long enough for the NTT is also done in one transform,
+     * which is cheaper than one transform per slice of the longer operand.
+     */
+    private static boolean useNtt(int alen, int blen) {
+        return blen >= NTT_THRESHOLD && NttMultiplier.transformLength(alen, blen) > 0;
+    }
+
+    /**
+     * Returns true if both operands are the same limbs, so the product is a
+     * square. Karatsuba, Toom-3 and the NTT then share work between the two
+     * operands, and their sub-products are squares as well.
+     */
+    static boolean isSquare(int[] a, int aoff, int alen, int[] b, int boff, int blen) {
+        return a == b && aoff == boff && alen == blen;
+    }
+
+    /**
+     * Returns the square of a magnitude in a new array of exactly 2 * alen limbs.
+     */
+    static int[] square(int[] a, int alen, boolean parallel) {
+        return multiply(a, 0, alen, a, 0, alen, parallel);
+    }
+
+    /**
+     * Classic O(n*m) long multiplication, accumulating into result.
+     */
+    static void schoolbook(int[] a, int aoff, int alen, int[] b, int boff, int blen, int[] result, int roff) {
+        for (int i = 0; i < alen; i++) {
+            long ai = a[aoff + i];
+
+            if (ai == 0) {
+                continue;
+            }
+
+            long carry = 0;
+            int r = roff + i;
+
+            for (int j = 0; j < blen; j++, r++) {
+                long t = ai * b[boff + j] + result[r] + carry;
+                carry = t / BASE;
+                result[r] = (int) (t - carry * BASE);
+            }
+
+            while (carry != 0) {
+                long t = result[r] + carry;
+                carry = t / BASE;
+                result[r++] = (int) (t - carry * BASE);
+            }
+        }
+    }
+
+    /**
+     * Schoolbook squaring, accumulating into result. Each cross product a[i] *
+     * a[j] with i < j is computed once and doubled, then the squares a[i]^2 are
+     * added, which halves the multiplications.
+     */
+    static void schoolbookSquare(int[] a, int aoff, int alen, int[] result, int roff) {
+        int[] square = new int[2 * alen];
+
+        for (int i = 0; i < alen; i++) {
+            long ai = a[aoff + i];
+            long carry = 0;
+
+            if (ai == 0) {
+                continue;
+            }
+
+            for (int j = i + 1; j < alen; j++) {
+                long t = ai * a[aoff + j] + square[i + j] + carry;
+                carry = t / BASE;
+                square[i + j] = (int) (t - carry * BASE);
+            }
+
+            // earlier rows stop below i + alen
+            square[i + alen] = (int) carry;
+        }
+
+        int carry = 0;
+
+        for (int i = 0; i < square.length; i++) {
+            int t = 2 * square[i] + carry;
+            carry = t >= BASE ? 1 : 0;
+            square[i] = t - carry * BASE;
+        }
+
+        long c = 0;
+
+        for (int i = 0; i < alen; i++) {
+            long ai = a[aoff + i];
+            long t = ai * ai + square[2 * i] + c;
+            c = t / BASE;
+            square[2 * i] = (int) (t - c * BASE);
+
+            t = square[2 * i + 1] + c;
+            c = t / BASE;
+            square[2 * i + 1] = (int) (t - c * BASE);
+        }
+
+        addInto(result, roff, square, square.length);
+    }
+
+    /**
+     * Multiplies a long operand by a much shorter one by slicing the long operand
+     * into pieces of blen limbs.
+     */
+    private static void unbalanced(int[] a, int aoff, int alen, int[] b, int boff, int blen, int[] result,
+            int roff, boolean parallel) {
+        if (!parallel) {
+            for (int from = 0; from < alen; from += blen) {
+                int len = Math.min(blen, alen - from);
+                multiplyInto(a, aoff + from, len, b, boff, blen, result, roff + from, false);
+            }
+            return;
+        }
+
+        // the slices overlap in the result, so they are multiplied apart and summed
+        ProductTask[] tasks = new ProductTask[(alen + blen - 1) / blen];
+        for (int s = 0; s < tasks.length; s++) {
+            int from = s * blen;
+            tasks[s] = new ProductTask(a, aoff + from, Math.min(blen, alen - from), b, boff, blen);
+        }
+
+        int[][] products = products(tasks, true);
+        for (int s = 0; s < tasks.length; s++) {
+            addInto(result, roff + s * blen, products[s], significant(products[s]));
+        }
+    }
+
+    /**
+     * Karatsuba multiplication: three half-size products instead of four.
+     */
+    private static int[] karatsuba(int[] a, int aoff, int alen, int[] b, int boff, int blen, boolean parallel) {
+        int half = (alen + 1) / 2;
+        int blow = Math.min(half, blen);
+        int bhigh = blen - blow;
+
+        int[] asum = BigInteger.addMagnitudes(a, aoff, half, a, aoff + half, alen - half);
+        int[] bsum = isSquare(a, aoff, alen, b, boff, blen) ? asum
+                : BigInteger.addMagnitudes(b, boff, blow, b, boff + blow, bhigh);
+
+        int[][] z = products(new ProductTask[] {
+                new ProductTask(a, aoff, half, b, boff, blow),
+                new ProductTask(a, aoff + half, alen - half, b, boff + blow, bhigh),
+                new ProductTask(asum, 0, significant(asum), bsum, 0, significant(bsum)) }, parallel);
+        int[] z0 = z[0], z2 = z[1], z1 = z[2];
+
+        // z0 = a0 * b0 and z2 = a1 * b1 go straight into their final place
+        int[] result = new int[alen + blen];
+        System.arraycopy(z0, 0, result, 0, z0.length);
+        addInto(result, 2 * half, z2, z2.length);
+
+        // z1 = (a0 + a1)(b0 + b1) - z0 - z2
+        subtractFrom(z1, z0);
+        subtractFrom(z1, z2);
+        addInto(result, half, z1, significant(z1));
+
+        return result;
+    }
+
+    /**
+     * Toom-3 multiplication: five third-size products, evaluated at 0, 1, -1, -2
+     * and infinity and interpolated with Bodrato's sequence.
+     */
+    private static int[] toom3(int[] a, int aoff, int alen, int[] b, int boff, int blen, boolean parallel) {
+        int k = (alen + 2) / 3;
+
+        // evaluation, done once for a square
+        BigInteger[] xs = evaluate(a, aoff, alen, k);
+        BigInteger[] ys = isSquare(a, aoff, alen, b, boff, blen) ? xs : evaluate(b, boff, blen, k);
+
+        // pointwise products
+        BigInteger[] r = signedProducts(xs, ys, parallel);
+        BigInteger r0 = r[0], r1 = r[1], rm1 = r[2], rm2 = r[3], rinf = r[4];
+
+        // interpolation
+        BigInteger r3 = divideExactSmall(BigInteger.sum(rm2, negate(r1)), 3);
+        r1 = divideExactSmall(BigInteger.sum(r1, negate(rm1)), 2);
+        BigInteger r2 = BigInteger.sum(rm1, negate(r0));
+        r3 = BigInteger.sum(divideExactSmall(BigInteger.sum(r2, negate(r3)), 2), multiplySmall(rinf, 2));
+        r2 = BigInteger.sum(BigInteger.sum(r2, r1), negate(rinf));
+        r1 = BigInteger.sum(r1, negate(r3));
+
+        // recomposition, every coefficient of the product is non-negative
+        int[] result = new int[alen + blen + 1];
+        addInto(result, 0, r0.limbs, r0.length);
+        addInto(result, k, r1.limbs, r1.length);
+        addInto(result, 2 * k, r2.limbs, r2.length);
+        addInto(result, 3 * k, r3.limbs, r3.length);
+        addInto(result, 4 * k, rinf.limbs, rinf.length);
+
+        return result;
+    }
+
+    /**
+     * Values of a magnitude split into three pieces of k limbs, as a polynomial,
+     * at 0, 1, -1, -2 and infinity.
+     */
+    private static BigInteger[] evaluate(int[] x, int off, int len, int k) {
+        BigInteger x0 = piece(x, off, len, 0, k);
+        BigInteger x1 = piece(x, off, len, 1, k);
+        BigInteger x2 = piece(x, off, len, 2, k);
+
+        BigInteger t = BigInteger.sum(x0, x2);
+        BigInteger p1 = BigInteger.sum(t, x1);
+        BigInteger m1 = BigInteger.sum(t, negate(x1));
+        BigInteger m2 = BigInteger.sum(multiplySmall(BigInteger.sum(m1, x2), 2), negate(x0));
+
+        return new BigInteger[] { x0, p1, m1, m2, x2 };
+    }
+
+    /**
+     * Runs a group of independent products, as parallel tasks if asked to.
+     */
+    private static int[][] products(ProductTask[] tasks, boolean parallel) {
+        int[][] products = new int[tasks.length][];
+
+        if (parallel) {
+            ForkJoinTask.invokeAll(tasks);
+        }
+
+        for (int i = 0; i < tasks.length; i++) {
+            products[i] = parallel ? tasks[i].join() : tasks[i].product(false);
+        }
+
+        return products;
+    }
+
+    /**
+     * Pairwise products xs[i] * ys[i] of signed integers.
+     */
+    private static BigInteger[] signedProducts(BigInteger[] xs, BigInteger[] ys, boolean parallel) {
+        ProductTask[] tasks = new ProductTask[xs.length];
+
+        for (int i = 0; i < xs.length; i++) {
+            tasks[i] = new ProductTask(xs[i].limbs, 0, xs[i].length, ys[i].limbs, 0, ys[i].length);
+        }
+
+        int[][] products = products(tasks, parallel);
+        BigInteger[] result = new BigInteger[xs.length];
+
+        for (int i = 0; i < xs.length; i++) {
+            result[i] = new BigInteger(xs[i].negative != ys[i].negative, products[i], products[i].length);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the index-th piece of k limbs of a magnitude as a BigInteger.
+     */
+    private static BigInteger piece(int[] x, int off, int len, int index, int k) {
+        int from = Math.min(index * k, len);
+        int to = Math.min(from + k, len);
+        return new BigInteger(false, slice(x, off + from, to - from), to - from);
+    }
+
+    private static int[] slice(int[] x, int from, int len) {
+        int[] copy = new int[len];
+        System.arraycopy(x, from, copy, 0, len);
+        return copy;
+    }
+
+    private static BigInteger negate(BigInteger x) {
+        return new BigInteger(!x.negative, x.limbs, x.length);
+    }
+
+    /**
+     * Returns x * m for a small non-negative m.
+     */
+    static BigInteger multiplySmall(BigInteger x, int m) {
+        int[] result = new int[x.length + 1];
+        long carry = 0;
+
+        for (int i = 0; i < x.length; i++) {
+            long t = (long) x.limbs[i] * m + carry;
+            carry = t / BASE;
+            result[i] = (int) (t - carry * BASE);
+        }
+
+        result[x.length] = (int) carry;
+        return new BigInteger(x.negative, result, result.length);
+    }
+
+    /**
+     * Returns x / d for a small positive d that is known to divide x.
+     */
+    static BigInteger divideExactSmall(BigInteger x, int d) {
+        int[] result = new int[x.length];
+        long rem = 0;
+
+        for (int i = x.length - 1; i >= 0; i--) {
+            long t = rem * BASE + x.limbs[i];
+            result[i] = (int) (t / d);
+            rem = t % d;
+        }
+
+        return new BigInteger(x.negative, result, result.length);
+    }
+
+    /**
+     * Adds x[0 .. xlen) into result starting at offset, propagating the carry.
+     */
+    static void addInto(int[] result, int offset, int[] x, int xlen) {
+        int carry = 0;
+        int i = 0;
+
+        for (; i < xlen; i++) {
+            int s = result[offset + i] + x[i] + carry;
+            carry = s >= BASE ? 1 : 0;
+            result[offset + i] = s - carry * BASE;
+        }
+
+        for (int r = offset + i; carry != 0; r++) {
+            int s = result[r] + carry;
+            carry = s >= BASE ? 1 : 0;
+            result[r] = s - carry * BASE;
+        }
+    }
+
+    /**
+     * Subtracts y from x in place. x must be at least as large as y.
+     */
+    private static void subtractFrom(int[] x, int[] y) {
+        int borrow = 0;
+        int ylen = significant(y);
+        int i = 0;
+
+        for (; i < ylen; i++) {
+            int d = x[i] - y[i] - borrow;
+            borrow = d < 0 ? 1 : 0;
+            x[i] = d + borrow * BASE;
+        }
+
+        for (; borrow != 0; i++) {
+            int d = x[i] - borrow;
+            borrow = d < 0 ? 1 : 0;
+            x[i] = d + borrow * BASE;
+        }
+    }
+
+    private static int significant(int[] x) {
+        int len = x.length;
+
+        while (len > 0 && x[len - 1] == 0) {
+            len--;
+        }
+
+        return len;
+    }
+
+    /**
+     * One product of a split, forked as a task in parallel multiplications.
+     */
+    static class ProductTask extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        final int[] a, b;
+        final int aoff, alen, boff, blen;
+
+        ProductTask(int[] a, int aoff, int alen, int[] b, int boff, int blen) {
+            this.a = a;
+            this.aoff = aoff;
+            this.alen = alen;
+            this.b = b;
+            this.boff = boff;
+            this.blen = blen;
+        }
+
+        int[] product(boolean parallel) {
+            return multiply(a, aoff, alen, b, boff, blen, parallel);
+        }
+
+        protected int[] compute() {
+            return product(true);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package bigint;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class multiplies magnitudes with a number-theoretic transform. The limbs
+ * are convolved modulo three word-sized primes and the exact convolution is
+ * rebuilt with the Chinese Remainder Theorem (Garner's algorithm), so the result
+ * is always exact.
+ *
+ * Each coefficient of the convolution is below n * (10^9)^2, which stays under
+ * the product of the three primes (about 7.1 * 10^26) for every transform
+ * length up to MAX_LENGTH. Longer products are split further by the caller.
+ *
+ * In a parallel multiplication the three convolutions run as separate tasks,
+ * and every stage of a long transform is split into ranges of butterflies.
+ *
+ */
+class NttMultiplier {
+
+    /**
+     * Primes of the form c * 2^k + 1, with a primitive root of each
+     */
+    static final long[] PRIMES = { 2013265921L, 469762049L, 754974721L };
+    private static final long[] GENERATORS = { 31, 3, 11 };
+
+    /**
+     * Longest transform supported by all three primes (2^24 limbs, roughly 150
+     * million digits of product)
+     */
+    static final int MAX_LENGTH = 1 << 24;
+
+    /**
+     * Number of butterflies of a stage below which a parallel transform stops
+     * splitting
+     */
+    static final int PARALLEL_BUTTERFLIES = 1 << 13;
+
+    private static final long BASE = BigInteger.BASE;
+
+    // 2^64 = Q64 * 10^9 + R64
+    private static final long Q64 = 18446744073L;
+    private static final long R64 = 709551616L;
+
+    private static final long P1_INV_MOD_P2 = modInverse(PRIMES[0], PRIMES[1]);
+    private static final long P1_INV_MOD_P3 = modInverse(PRIMES[0], PRIMES[2]);
+    private static final long P2_INV_MOD_P3 = modInverse(PRIMES[1], PRIMES[2]);
+
+    private NttMultiplier() {
+    }
+
+    /**
+     * Returns the transform length needed for a product of alen + blen limbs, or
+     * -1 if the product is too long for a single transform.
+     */
+    static int transformLength(int alen, int blen) {
+        int n = Integer.highestOneBit(Math.max(alen + blen - 1, 1));
+
+        if (n < alen + blen - 1) {
+            n <<= 1;
+        }
+
+        return n <= MAX_LENGTH ? n : -1;
+    }
+
+    /**
+     * Returns the product of a[aoff .. aoff+alen) and b[boff .. boff+blen) in a
+     * new array of exactly alen + blen limbs.
+     */
+    static int[] multiply(int[] a, int aoff, int alen, int[] b, int boff, int blen, boolean parallel) {
+        int n = transformLength(alen, blen);
+        ConvolveTask[] tasks = new ConvolveTask[PRIMES.length];
+
+        for (int p = 0; p < PRIMES.length; p++) {
+            tasks[p] = new ConvolveTask(a, aoff, alen, b, boff, blen, n, p);
+        }
+
+        if (parallel) {
+            ForkJoinTask.invokeAll(tasks);
+        }
+
+        int[][] residues = new int[PRIMES.length][];
+
+        for (int p = 0; p < PRIMES.length; p++) {
+            residues[p] = parallel ? tasks[p].join() : tasks[p].convolve(false);
+        }
+
+        return combine(residues, alen + blen);
+    }
+
+    /**
+     * Cyclic convolution of the two operands modulo PRIMES[p], with length n.
+     */
+    static int[] convolve(int[] a, int aoff, int alen, int[] b, int boff, int blen, int n, int p,
+            boolean parallel) {
+        long mod = PRIMES[p];
+        int[] fa = load(a, aoff, alen, n, mod);
+        transform(fa, p, false, parallel);
+
+        // a square needs only one forward transform
+        int[] fb = fa;
+
+        if (!Multiplier.isSquare(a, aoff, alen, b, boff, blen)) {
+            fb = load(b, boff, blen, n, mod);
+            transform(fb, p, false, parallel);
+        }
+
+        for (int i = 0; i < n; i++) {
+            fa[i] = (int) ((long) fa[i] * fb[i] % mod);
+        }
+
+        transform(fa, p, true, parallel);
+        return fa;
+    }
+
+    /**
+     * Copies limbs into a zero-padded array of length n, reduced modulo mod.
+     */
+    static int[] load(int[] x, int off, int len, int n, long mod) {
+        int[] f = new int[n];
+
+        for (int i = 0; i < len; i++) {
+            f[i] = (int) (x[off + i] % mod);
+        }
+
+        return f;
+    }
+
+    /**
+     * In-place iterative radix-2 transform modulo PRIMES[p]. The inverse
+     * transform includes the division by n.
+     */
+    static void transform(int[] f, int p, boolean inverse, boolean parallel) {
+        int n = f.length;
+        long mod = PRIMES[p];
+
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+
+            j ^= bit;
+
+            if (i < j) {
+                int t = f[i];
+                f[i] = f[j];
+                f[j] = t;
+            }
+        }
+
+        long[] roots = roots(n, p, inverse);
+
+        for (int half = 1; half < n; half <<= 1) {
+            int stride = n / (2 * half);
+
+            if (parallel && n / 2 > PARALLEL_BUTTERFLIES) {
+                new StageTask(f, 0, n / 2, half, stride, roots, mod).invoke();
+            } else {
+                butterflies(f, 0, n / 2, half, stride, roots, mod);
+            }
+        }
+
+        if (inverse) {
+            long nInv = modPow(n, mod - 2, mod);
+
+            for (int i = 0; i < n; i++) {
+                f[i] = (int) (f[i] * nInv % mod);
+            }
+        }
+    }
+
+    /**
+     * Butterflies lo .. hi-1 of a transform stage whose blocks pair elements half
+     * apart. Butterfly i is the (i % half)-th of block i / half.
+     */
+    static void butterflies(int[] f, int lo, int hi, int half, int stride, long[] roots, long mod) {
+        int i = lo;
+
+        while (i < hi) {
+            int block = i / half;
+            int first = i - block * half;
+            int last = Math.min(half, first + hi - i);
+            int start = block * 2 * half;
+
+            for (int k = first; k < last; k++) {
+                int u = f[start + k];
+                long v = f[start + k + half] * roots[k * stride] % mod;
+                long sum = u + v;
+                long diff = u - v;
+
+                f[start + k] = (int) (sum >= mod ? sum - mod : sum);
+                f[start + k + half] = (int) (diff < 0 ? diff + mod : diff);
+            }
+
+            i += last - first;
+        }
+    }
+
+    /**
+     * Powers w^0 .. w^(n/2 - 1) of a primitive n-th root of unity modulo
+     * PRIMES[p] (or of its inverse).
+     */
+    static long[] roots(int n, int p, boolean inverse) {
+        long mod = PRIMES[p];
+        long w = modPow(GENERATORS[p], (mod - 1) / n, mod);
+
+        if (inverse) {
+            w = modPow(w, mod - 2, mod);
+        }
+
+        long[] roots = new long[Math.max(n / 2, 1)];
+        roots[0] = 1;
+
+        for (int k = 1; k < roots.length; k++) {
+            roots[k] = roots[k - 1] * w % mod;
+        }
+
+        return roots;
+    }
+
+    /**
+     * Rebuilds the exact convolution from its three residues and propagates the
+     * carries into base 10^9 limbs.
+     */
+    static int[] combine(int[][] residues, int length) {
+        long p1 = PRIMES[0], p2 = PRIMES[1], p3 = PRIMES[2];
+        int[] result = new int[length];
+        int n = Math.min(length, residues[0].length);
+        long carry = 0;
+
+        for (int i = 0; i < n; i++) {
+            long r1 = residues[0][i], r2 = residues[1][i], r3 = residues[2][i];
+
+            // x = v1 + p1 * (v2 + p2 * v3)
+            long v1 = r1;
+            long v2 = (r2 - v1 % p2 + p2) % p2 * P1_INV_MOD_P2 % p2;
+            long v3 = ((r3 - v1 % p3 + p3) % p3 * P1_INV_MOD_P3 % p3 - v2 % p3 + p3) % p3 * P2_INV_MOD_P3 % p3;
+            long t = v2 + p2 * v3;
+
+            // x + carry as a 128-bit value hi:lo
+            long lo = p1 * t;
+            long hi = Math.multiplyHigh(p1, t);
+            long sum = lo + v1;
+            if (Long.compareUnsigned(sum, lo) < 0) {
+                hi++;
+            }
+            lo = sum + carry;
+            if (Long.compareUnsigned(lo, sum) < 0) {
+                hi++;
+            }
+
+            // divide hi:lo by 10^9, hi is small enough that no step overflows
+            long low = hi * R64 + Long.remainderUnsigned(lo, BASE);
+            carry = hi * Q64 + Long.divideUnsigned(lo, BASE) + low / BASE;
+            result[i] = (int) (low % BASE);
+        }
+
+        // the last limb of the product lies past the convolution
+        for (int i = n; i < length; i++) {
+            result[i] = (int) (carry % BASE);
+            carry /= BASE;
+        }
+
+        return result;
+    }
+
+    static long modPow(long base, long exponent, long mod) {
+        long result = 1;
+        base %= mod;
+
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = result * base % mod;
+            }
+
+            base = base * base % mod;
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+
+    private static long modInverse(long a, long mod) {
+        return modPow(a, mod - 2, mod);
+    }
+
+    /**
+     * One prime's convolution, forked as a task in parallel multiplications.
+     */
+    static class ConvolveTask extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        final int[] a, b;
+        final int aoff, alen, boff, blen, n, p;
+
+        ConvolveTask(int[] a, int aoff, int alen, int[] b, int boff, int blen, int n, int p) {
+            this.a = a;
+            this.aoff = aoff;
+            this.alen = alen;
+            this.b = b;
+            this.boff = boff;
+            this.blen = blen;
+            this.n = n;
+            this.p = p;
+        }
+
+        int[] convolve(boolean parallel) {
+            return NttMultiplier.convolve(a, aoff, alen, b, boff, blen, n, p, parallel);
+        }
+
+        protected int[] compute() {
+            return convolve(true);
+        }
+    }
+
+    /**
+     * A range of butterflies of one transform stage.
+     */
+    static class StageTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int[] f;
+        final int lo, hi, half, stride;
+        final long[] roots;
+        final long mod;
+
+        StageTask(int[] f, int lo, int hi, int half, int stride, long[] roots, long mod) {
+            this.f = f;
+            this.lo = lo;
+            this.hi = hi;
+            this.half = half;
+            this.stride = stride;
+            this.roots = roots;
+            this.mod = mod;
+        }
+
+        protected void compute() {
+            if (hi - lo <= PARALLEL_BUTTERFLIES) {
+                butterflies(f, lo, hi, half, stride, roots, mod);
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new StageTask(f, lo, mid, half, stride, roots, mod),
+                    new StageTask(f, mid, hi, half, stride, roots, mod));
+        }
+    }
+}
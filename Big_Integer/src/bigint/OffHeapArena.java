@@ -0,0 +1,206 @@
+package bigint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class owns the memory of a group of OffHeapBigIntegers, so it can all be
+ * released at once. Limbs are kept in direct buffers outside the Java heap, so
+ * the garbage collector never scans or copies them. Once the arena holds
+ * ramBudget bytes, further integers go to memory-mapped temporary files, and
+ * the operating system pages them in and out as needed.
+ *
+ * Closing the arena frees every buffer and deletes the temporary files. After
+ * that, any use of an integer allocated in it throws IllegalStateException. An
+ * arena must not be used by two threads at the same time.
+ *
+ */
+public class OffHeapArena implements AutoCloseable {
+
+    /**
+     * Largest number of limbs in one integer (a buffer holds at most 2GB)
+     */
+    static final int MAX_LIMBS = Integer.MAX_VALUE / Integer.BYTES;
+
+    private final long ramBudget;
+    private final Path spillDirectory;
+
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private final List<Path> spillFiles = new ArrayList<>();
+
+    private long ramBytes;
+    private long spilledBytes;
+    private boolean open = true;
+
+    /**
+     * Initializes an arena that keeps everything in direct memory.
+     */
+    public OffHeapArena() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Initializes an arena that spills to the default temporary directory once it
+     * holds ramBudget bytes of direct memory.
+     *
+     * @param ramBudget Most bytes to allocate in direct memory
+     */
+    public OffHeapArena(long ramBudget) {
+        this(ramBudget, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Initializes an arena that spills to the given directory once it holds
+     * ramBudget bytes of direct memory.
+     *
+     * @param ramBudget      Most bytes to allocate in direct memory
+     * @param spillDirectory Directory for the memory-mapped temporary files
+     */
+    public OffHeapArena(long ramBudget, Path spillDirectory) {
+        this.ramBudget = ramBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Returns a zero-filled buffer with room for the given number of limbs, in
+     * native byte order.
+     */
+    ByteBuffer allocate(long limbs) {
+        checkOpen();
+
+        if (limbs > MAX_LIMBS) {
+            throw new ArithmeticException("integer too large for one buffer");
+        }
+
+        int bytes = (int) limbs * Integer.BYTES;
+        ByteBuffer buffer;
+
+        if (ramBytes + bytes <= ramBudget) {
+            buffer = ByteBuffer.allocateDirect(bytes);
+            ramBytes += bytes;
+        } else {
+            buffer = map(bytes);
+            spilledBytes += bytes;
+        }
+
+        buffer.order(ByteOrder.nativeOrder());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Maps a new temporary file of the given size. The file is sparse, so it
+     * reads as zeros.
+     */
+    private ByteBuffer map(int bytes) {
+        try {
+            Path file = Files.createTempFile(spillDirectory, "bigint", ".limbs");
+            spillFiles.add(file);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated in direct memory.
+     */
+    public long ramBytes() {
+        return ramBytes;
+    }
+
+    /**
+     * Returns the number of bytes allocated in memory-mapped temporary files.
+     */
+    public long spilledBytes() {
+        return spilledBytes;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("arena is closed");
+        }
+    }
+
+    /**
+     * Frees every buffer of the arena and deletes its temporary files.
+     */
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+
+        open = false;
+
+        for (ByteBuffer buffer : buffers) {
+            Cleaner.free(buffer);
+        }
+
+        buffers.clear();
+
+        for (Path file : spillFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+
+        spillFiles.clear();
+        ramBytes = 0;
+        spilledBytes = 0;
+    }
+
+    /**
+     * Frees direct and mapped buffers right away with Unsafe.invokeCleaner, looked
+     * up reflectively so that nothing is compiled against sun.misc. Where that is
+     * not available, the buffers are left to the garbage collector.
+     */
+    private static class Cleaner {
+
+        private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+        static void free(ByteBuffer buffer) {
+            if (INVOKE_CLEANER != null && buffer.capacity() > 0) {
+                try {
+                    INVOKE_CLEANER.invoke(buffer);
+                } catch (Throwable e) {
+                    // left to the garbage collector
+                }
+            }
+        }
+
+        private static MethodHandle invokeCleaner() {
+            try {
+                Class<?> type = Class.forName("sun.misc.Unsafe");
+                Field field = type.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                Method method = type.getMethod("invokeCleaner", ByteBuffer.class);
+                return MethodHandles.lookup().unreflect(method).bindTo(field.get(null));
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package bigint;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * This class is a BigInteger whose base 10^9 limbs live outside the Java heap,
+ * in direct buffers or memory-mapped files owned by an OffHeapArena. Integers
+ * of hundreds of millions of digits then cost the garbage collector nothing,
+ * and the arena frees them all at once when it is closed.
+ *
+ * The operations mirror BigInteger: add, subtract, multiply and compare. Each
+ * result is allocated in the arena of the first operand, or in one passed
+ * explicitly. Addition and subtraction stream over the buffers. Multiplication
+ * copies CHUNK_LIMBS-limb slices of the operands onto the heap, multiplies them
+ * with Multiplier, and adds each partial product into the off-heap result, so
+ * the heap footprint stays bounded whatever the size of the operands.
+ *
+ */
+public class OffHeapBigInteger {
+
+    /**
+     * Number of limbs of each operand slice multiplied on the heap
+     */
+    public static int CHUNK_LIMBS = 1 << 21;
+
+    private static final int BASE = BigInteger.BASE;
+
+    final OffHeapArena arena;
+    final boolean negative;
+
+    /**
+     * Limbs, least significant first, as native-order ints. The buffer may have
+     * unused capacity after length limbs.
+     */
+    final ByteBuffer limbs;
+    final int length;
+
+    /**
+     * Wraps limbs, dropping leading zero limbs. The buffer is read, so the arena
+     * that owns it must be checked open first.
+     */
+    private OffHeapBigInteger(OffHeapArena arena, boolean negative, ByteBuffer limbs, int length) {
+        while (length > 0 && limbs.getInt((length - 1) * Integer.BYTES) == 0) {
+            length--;
+        }
+
+        this.arena = arena;
+        this.negative = negative && length > 0;
+        this.limbs = limbs;
+        this.length = length;
+    }
+
+    /**
+     * Copies an integer into an arena.
+     *
+     * @param integer Integer to copy
+     * @param arena   Arena that owns the copy
+     * @return Off-heap copy of the integer
+     */
+    public static OffHeapBigInteger copyOf(BigInteger integer, OffHeapArena arena) {
+        ByteBuffer limbs = arena.allocate(integer.length);
+        ints(limbs).put(0, integer.limbs, 0, integer.length);
+        return new OffHeapBigInteger(arena, integer.negative, limbs, integer.length);
+    }
+
+    /**
+     * Copies this integer back onto the heap.
+     *
+     * @return BigInteger with the same value
+     */
+    public BigInteger toBigInteger() {
+        arena.checkOpen();
+        int[] copy = new int[length];
+        ints(limbs).get(0, copy, 0, length);
+        return new BigInteger(negative, copy, length);
+    }
+
+    public boolean isNegative() {
+        return negative;
+    }
+
+    public OffHeapArena arena() {
+        return arena;
+    }
+
+    /**
+     * Returns the sum of two integers, allocated in the arena of the first.
+     */
+    public static OffHeapBigInteger add(OffHeapBigInteger first, OffHeapBigInteger second) {
+        return add(first, second, first.arena);
+    }
+
+    /**
+     * Returns the sum of two integers, allocated in the given arena.
+     *
+     * @param first  First operand
+     * @param second Second operand
+     * @param arena  Arena that owns the result
+     * @return Result of first + second
+     */
+    public static OffHeapBigInteger add(OffHeapBigInteger first, OffHeapBigInteger second, OffHeapArena arena) {
+        first.arena.checkOpen();
+        second.arena.checkOpen();
+
+        if (first.negative == second.negative) {
+            return addMagnitudes(first, second, first.negative, arena);
+        }
+
+        int cmp = compareMagnitudes(first, second);
+
+        if (cmp == 0) {
+            return new OffHeapBigInteger(arena, false, arena.allocate(0), 0);
+        }
+
+        return cmp > 0 ? subtractMagnitudes(first, second, first.negative, arena)
+                : subtractMagnitudes(second, first, second.negative, arena);
+    }
+
+    /**
+     * Returns the difference of two integers, allocated in the arena of the first.
+     */
+    public static OffHeapBigInteger subtract(OffHeapBigInteger first, OffHeapBigInteger second) {
+        return subtract(first, second, first.arena);
+    }
+
+    /**
+     * Returns the difference of two integers, allocated in the given arena.
+     *
+     * @param first  First operand
+     * @param second Second operand
+     * @param arena  Arena that owns the result
+     * @return Result of first - second
+     */
+    public static OffHeapBigInteger subtract(OffHeapBigInteger first, OffHeapBigInteger second,
+            OffHeapArena arena) {
+        // the negated copy reads the limbs of second, which must not be freed
+        first.arena.checkOpen();
+        second.arena.checkOpen();
+
+        return add(first, new OffHeapBigInteger(second.arena, !second.negative, second.limbs, second.length), arena);
+    }
+
+    /**
+     * Returns the product of two integers, allocated in the arena of the first.
+     */
+    public static OffHeapBigInteger multiply(OffHeapBigInteger first, OffHeapBigInteger second) {
+        return multiply(first, second, first.arena);
+    }
+
+    /**
+     * Returns the product of two integers, allocated in the given arena.
+     *
+     * @param first  First operand
+     * @param second Second operand
+     * @param arena  Arena that owns the result
+     * @return Result of first * second
+     */
+    public static OffHeapBigInteger multiply(OffHeapBigInteger first, OffHeapBigInteger second,
+            OffHeapArena arena) {
+        first.arena.checkOpen();
+        second.arena.checkOpen();
+
+        int alen = first.length, blen = second.length;
+        ByteBuffer result = arena.allocate((long) alen + blen);
+        IntBuffer a = ints(first.limbs), b = ints(second.limbs), r = ints(result);
+        int chunk = Math.max(CHUNK_LIMBS, 1);
+
+        // keep the second operand on the heap when it fits in one slice
+        int[] bSlice = blen <= chunk ? slice(b, 0, blen) : null;
+
+        for (int i = 0; i < alen; i += chunk) {
+            int ilen = Math.min(chunk, alen - i);
+            int[] aSlice = slice(a, i, ilen);
+
+            for (int j = 0; j < blen; j += chunk) {
+                int jlen = Math.min(chunk, blen - j);
+                int[] slice = bSlice != null ? bSlice : slice(b, j, jlen);
+                int[] product = Multiplier.multiply(aSlice, ilen, slice, jlen);
+                addInto(r, i + j, product);
+            }
+        }
+
+        return new OffHeapBigInteger(arena, first.negative != second.negative, result, alen + blen);
+    }
+
+    /**
+     * Compares two integers.
+     *
+     * @return A negative number, zero or a positive number as first is less
+     *         than, equal to or greater than second
+     */
+    public static int compare(OffHeapBigInteger first, OffHeapBigInteger second) {
+        first.arena.checkOpen();
+        second.arena.checkOpen();
+
+        if (first.negative != second.negative) {
+            return first.negative ? -1 : 1;
+        }
+
+        int cmp = compareMagnitudes(first, second);
+        return first.negative ? -cmp : cmp;
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString();
+    }
+
+    private static OffHeapBigInteger addMagnitudes(OffHeapBigInteger x, OffHeapBigInteger y, boolean negative,
+            OffHeapArena arena) {
+        if (x.length < y.length) {
+            OffHeapBigInteger t = x;
+            x = y;
+            y = t;
+        }
+
+        ByteBuffer result = arena.allocate(x.length + 1);
+        int carry = 0;
+        int i = 0;
+
+        for (; i < y.length; i++) {
+            int s = limb(x, i) + limb(y, i) + carry;
+            carry = s >= BASE ? 1 : 0;
+            result.putInt(i * Integer.BYTES, s - carry * BASE);
+        }
+
+        for (; i < x.length; i++) {
+            int s = limb(x, i) + carry;
+            carry = s >= BASE ? 1 : 0;
+            result.putInt(i * Integer.BYTES, s - carry * BASE);
+        }
+
+        result.putInt(i * Integer.BYTES, carry);
+        return new OffHeapBigInteger(arena, negative, result, x.length + 1);
+    }
+
+    /**
+     * Returns |x| - |y| with the given sign, where |x| > |y|.
+     */
+    private static OffHeapBigInteger subtractMagnitudes(OffHeapBigInteger x, OffHeapBigInteger y,
+            boolean negative, OffHeapArena arena) {
+        ByteBuffer result = arena.allocate(x.length);
+        int borrow = 0;
+        int i = 0;
+
+        for (; i < y.length; i++) {
+            int d = limb(x, i) - limb(y, i) - borrow;
+            borrow = d < 0 ? 1 : 0;
+            result.putInt(i * Integer.BYTES, d + borrow * BASE);
+        }
+
+        for (; i < x.length; i++) {
+            int d = limb(x, i) - borrow;
+            borrow = d < 0 ? 1 : 0;
+            result.putInt(i * Integer.BYTES, d + borrow * BASE);
+        }
+
+        return new OffHeapBigInteger(arena, negative, result, x.length);
+    }
+
+    private static int compareMagnitudes(OffHeapBigInteger x, OffHeapBigInteger y) {
+        if (x.length != y.length) {
+            return x.length > y.length ? 1 : -1;
+        }
+
+        for (int i = x.length - 1; i >= 0; i--) {
+            int a = limb(x, i), b = limb(y, i);
+
+            if (a != b) {
+                return a > b ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Adds a heap product into the off-heap result starting at offset,
+     * propagating the carry.
+     */
+    private static void addInto(IntBuffer result, int offset, int[] product) {
+        int carry = 0;
+        int i = 0;
+
+        for (; i < product.length; i++) {
+            int s = result.get(offset + i) + product[i] + carry;
+            carry = s >= BASE ? 1 : 0;
+            result.put(offset + i, s - carry * BASE);
+        }
+
+        for (int r = offset + i; carry != 0; r++) {
+            int s = result.get(r) + carry;
+            carry = s >= BASE ? 1 : 0;
+            result.put(r, s - carry * BASE);
+        }
+    }
+
+    private static int[] slice(IntBuffer x, int from, int len) {
+        int[] slice = new int[len];
+        x.get(from, slice, 0, len);
+        return slice;
+    }
+
+    private static int limb(OffHeapBigInteger x, int i) {
+        return x.limbs.getInt(i * Integer.BYTES);
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer) {
+        return buffer.duplicate().order(buffer.order()).asIntBuffer();
+    }
+}
@@ -0,0 +1,299 @@
+package bigint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class multiplies many integers together as a balanced binary tree: the
+ * list is split in half, each half is multiplied recursively, and the two
+ * results are multiplied last. Operands at each level of the tree are of
+ * similar size, so Karatsuba, Toom-3 and the NTT do nearly all the work,
+ * instead of the quadratic cost of multiplying a growing product by one small
+ * factor at a time.
+ *
+ * Factorials use the prime swing algorithm: n! = ((n/2)!)^2 * swing(n), where
+ * swing(n) = n! / ((n/2)!)^2 is assembled from its prime factorization.
+ * Binomial coefficients are built from their prime factorization directly, so
+ * no division is ever needed.
+ *
+ * Each method also has a version that runs the two halves of every large
+ * subtree, and the large multiplications themselves, in parallel on a
+ * ForkJoinPool.
+ *
+ */
+public class ProductTree {
+
+    /**
+     * Smallest subtree result, in limbs, whose halves are computed in parallel
+     */
+    public static int PARALLEL_THRESHOLD = 1000;
+
+    private static final int BASE = BigInteger.BASE;
+
+    /**
+     * Small factors are packed into leaves below this bound (10^18)
+     */
+    private static final long LEAF_LIMIT = (long) BASE * BASE;
+
+    private ProductTree() {
+    }
+
+    /**
+     * Returns the product of all the integers in a list, 1 for an empty list.
+     *
+     * @param values Integers to multiply
+     * @return Product of all the values
+     */
+    public static BigInteger product(List<BigInteger> values) {
+        return product(values.toArray(new BigInteger[0]), null);
+    }
+
+    /**
+     * Returns the product of all the integers in a list, computed in parallel on
+     * the given pool.
+     *
+     * @param values Integers to multiply
+     * @param pool   Pool that runs the subtrees
+     * @return Product of all the values
+     */
+    public static BigInteger product(List<BigInteger> values, ForkJoinPool pool) {
+        return product(values.toArray(new BigInteger[0]), pool);
+    }
+
+    /**
+     * Returns n!.
+     *
+     * @param n Non-negative number
+     * @return n!
+     * @throws ArithmeticException If n is negative
+     */
+    public static BigInteger factorial(int n) {
+        return factorial(n, null);
+    }
+
+    /**
+     * Returns n!, computed in parallel on the given pool.
+     *
+     * @param n    Non-negative number
+     * @param pool Pool that runs the subtrees and multiplications
+     * @return n!
+     * @throws ArithmeticException If n is negative
+     */
+    public static BigInteger factorial(int n, ForkJoinPool pool) {
+        if (n < 0) {
+            throw new ArithmeticException("negative factorial");
+        }
+
+        int[] primes = primes(n);
+        return primeSwingFactorial(n, primes, pool);
+    }
+
+    /**
+     * Returns the binomial coefficient n choose k, 0 if k is not between 0 and n.
+     *
+     * @param n Non-negative number of items
+     * @param k Number of items chosen
+     * @return n! / (k! * (n - k)!)
+     * @throws ArithmeticException If n is negative
+     */
+    public static BigInteger binomial(int n, int k) {
+        return binomial(n, k, null);
+    }
+
+    /**
+     * Returns the binomial coefficient n choose k, computed in parallel on the
+     * given pool.
+     *
+     * @param n    Non-negative number of items
+     * @param k    Number of items chosen
+     * @param pool Pool that runs the subtrees and multiplications
+     * @return n! / (k! * (n - k)!)
+     * @throws ArithmeticException If n is negative
+     */
+    public static BigInteger binomial(int n, int k, ForkJoinPool pool) {
+        if (n < 0) {
+            throw new ArithmeticException("negative binomial");
+        }
+
+        if (k < 0 || k > n) {
+            return BigInteger.ZERO;
+        }
+
+        // Legendre: the exponent of p is the number of carries when adding k and
+        // n - k in base p
+        Factors factors = new Factors();
+
+        for (int p : primes(n)) {
+            int e = 0;
+
+            for (long q = p; q <= n; q *= p) {
+                e += n / q - k / q - (n - k) / q;
+            }
+
+            factors.add(p, e);
+        }
+
+        return product(factors.leaves(), pool);
+    }
+
+    private static BigInteger primeSwingFactorial(int n, int[] primes, ForkJoinPool pool) {
+        if (n < 2) {
+            return BigInteger.ONE;
+        }
+
+        BigInteger half = primeSwingFactorial(n / 2, primes, pool);
+        BigInteger swing = product(swingFactors(n, primes).leaves(), pool);
+        return multiply(multiply(half, half, pool), swing, pool);
+    }
+
+    /**
+     * Prime factors of swing(n) = n! / ((n/2)!)^2. The exponent of p is the
+     * number of odd values among n / p, n / p^2, ...
+     */
+    private static Factors swingFactors(int n, int[] primes) {
+        Factors factors = new Factors();
+
+        for (int p : primes) {
+            if (p > n) {
+                break;
+            }
+
+            int e = 0;
+
+            for (int q = n / p; q > 0; q /= p) {
+                e += q & 1;
+            }
+
+            factors.add(p, e);
+        }
+
+        return factors;
+    }
+
+    /**
+     * Primes up to n, by the sieve of Eratosthenes.
+     */
+    static int[] primes(int n) {
+        boolean[] composite = new boolean[n + 1];
+        int count = 0;
+
+        for (int i = 2; i <= n; i++) {
+            if (!composite[i]) {
+                count++;
+
+                for (long j = (long) i * i; j <= n; j += i) {
+                    composite[(int) j] = true;
+                }
+            }
+        }
+
+        int[] primes = new int[count];
+
+        for (int i = 2, c = 0; i <= n; i++) {
+            if (!composite[i]) {
+                primes[c++] = i;
+            }
+        }
+
+        return primes;
+    }
+
+    private static BigInteger product(BigInteger[] values, ForkJoinPool pool) {
+        if (values.length == 0) {
+            return BigInteger.ONE;
+        }
+
+        ProductTask task = new ProductTask(values, 0, values.length);
+        return pool == null ? task.product(false) : pool.invoke(task);
+    }
+
+    private static BigInteger multiply(BigInteger first, BigInteger second, ForkJoinPool pool) {
+        return pool == null ? BigInteger.product(first, second) : BigInteger.parallelMultiply(first, second, pool);
+    }
+
+    /**
+     * Prime factors, packed into leaves just below LEAF_LIMIT.
+     */
+    private static class Factors {
+
+        private final List<BigInteger> leaves = new ArrayList<>();
+        private long leaf = 1;
+
+        void add(long p, int exponent) {
+            for (int i = 0; i < exponent; i++) {
+                if (leaf > LEAF_LIMIT / p) {
+                    leaves.add(BigInteger.valueOf(leaf));
+                    leaf = 1;
+                }
+
+                leaf *= p;
+            }
+        }
+
+        BigInteger[] leaves() {
+            if (leaf > 1) {
+                leaves.add(BigInteger.valueOf(leaf));
+                leaf = 1;
+            }
+
+            return leaves.toArray(new BigInteger[0]);
+        }
+    }
+
+    /**
+     * The product of values[lo .. hi), with both halves forked when the result
+     * is large enough.
+     */
+    static class ProductTask extends RecursiveTask<BigInteger> {
+
+        private static final long serialVersionUID = 1L;
+
+        final BigInteger[] values;
+        final int lo, hi;
+
+        ProductTask(BigInteger[] values, int lo, int hi) {
+            this.values = values;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        BigInteger product(boolean parallel) {
+            if (hi - lo == 1) {
+                return values[lo];
+            }
+
+            int mid = (lo + hi) >>> 1;
+            ProductTask left = new ProductTask(values, lo, mid);
+            ProductTask right = new ProductTask(values, mid, hi);
+
+            if (parallel && resultLength() >= PARALLEL_THRESHOLD) {
+                right.fork();
+                BigInteger l = left.compute();
+                BigInteger r = right.join();
+                int[] product = Multiplier.multiply(l.limbs, 0, l.length, r.limbs, 0, r.length, true);
+                return new BigInteger(l.negative != r.negative, product, product.length);
+            }
+
+            return BigInteger.product(left.product(false), right.product(false));
+        }
+
+        /**
+         * Upper bound on the limbs of the product of this range
+         */
+        private long resultLength() {
+            long length = 0;
+
+            for (int i = lo; i < hi && length < PARALLEL_THRESHOLD; i++) {
+                length += values[i].length;
+            }
+
+            return length;
+        }
+
+        protected BigInteger compute() {
+            return product(true);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package bigint;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the limb kernels, loaded by LimbKernels when the
+ * jdk.incubator.vector module is available.
+ *
+ * Addition adds a whole vector of limbs at once and reduces the lanes that
+ * reached BASE. The carries they generate are shifted up one lane, the top
+ * lane of the previous block entering lane 0, and added in. A carry can only
+ * travel further when it lands on a lane of exactly BASE - 1. That is rare for
+ * most operands, so the kernel simply checks for it and redoes such a block
+ * with the scalar loop. Subtraction works the same way with borrows, which
+ * travel further only through lanes that are zero.
+ *
+ */
+class VectorLimbKernels extends LimbKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+
+    /**
+     * Shorter runs go through the scalar loops
+     */
+    private static final int MIN_LENGTH = 2 * LANES;
+
+    @Override
+    int add(int[] a, int aoff, int[] b, int boff, int[] r, int roff, int len, int carry) {
+        if (len < MIN_LENGTH) {
+            return super.add(a, aoff, b, boff, r, roff, len, carry);
+        }
+
+        int i = 0;
+
+        // only the top lane of the previous block's carries is read
+        IntVector carries = IntVector.broadcast(SPECIES, carry);
+
+        for (int bound = SPECIES.loopBound(len); i < bound; i += LANES) {
+            IntVector s = IntVector.fromArray(SPECIES, a, aoff + i).add(IntVector.fromArray(SPECIES, b, boff + i));
+            VectorMask<Integer> generate = s.compare(VectorOperators.GE, BASE);
+            IntVector incoming = carries.slice(LANES - 1, ZERO.blend(1, generate));
+            s = s.sub(BASE, generate).add(incoming);
+
+            VectorMask<Integer> ripple = s.compare(VectorOperators.EQ, BASE);
+
+            if (ripple.anyTrue()) {
+                // an incoming carry ran into a lane of BASE - 1, finish the block in order
+                int out = super.add(a, aoff + i, b, boff + i, r, roff + i, LANES, carries.lane(LANES - 1));
+                carries = IntVector.broadcast(SPECIES, out);
+                continue;
+            }
+
+            s.intoArray(r, roff + i);
+            carries = ZERO.blend(1, generate);
+        }
+
+        return super.add(a, aoff + i, b, boff + i, r, roff + i, len - i, carries.lane(LANES - 1));
+    }
+
+    @Override
+    int subtract(int[] a, int aoff, int[] b, int boff, int[] r, int roff, int len, int borrow) {
+        if (len < MIN_LENGTH) {
+            return super.subtract(a, aoff, b, boff, r, roff, len, borrow);
+        }
+
+        int i = 0;
+        IntVector borrows = IntVector.broadcast(SPECIES, borrow);
+
+        for (int bound = SPECIES.loopBound(len); i < bound; i += LANES) {
+            IntVector d = IntVector.fromArray(SPECIES, a, aoff + i).sub(IntVector.fromArray(SPECIES, b, boff + i));
+            VectorMask<Integer> generate = d.compare(VectorOperators.LT, 0);
+            IntVector incoming = borrows.slice(LANES - 1, ZERO.blend(1, generate));
+            d = d.add(BASE, generate).sub(incoming);
+
+            VectorMask<Integer> ripple = d.compare(VectorOperators.LT, 0);
+
+            if (ripple.anyTrue()) {
+                // an incoming borrow ran into a zero lane, finish the block in order
+                int out = super.subtract(a, aoff + i, b, boff + i, r, roff + i, LANES, borrows.lane(LANES - 1));
+                borrows = IntVector.broadcast(SPECIES, out);
+                continue;
+            }
+
+            d.intoArray(r, roff + i);
+            borrows = ZERO.blend(1, generate);
+        }
+
+        return super.subtract(a, aoff + i, b, boff + i, r, roff + i, len - i, borrows.lane(LANES - 1));
+    }
+
+    @Override
+    int compare(int[] a, int[] b, int len) {
+        int i = len;
+
+        // the top len % LANES limbs first, then whole vectors downwards
+        for (int bound = SPECIES.loopBound(len); i > bound; i--) {
+            if (a[i - 1] != b[i - 1]) {
+                return a[i - 1] > b[i - 1] ? 1 : -1;
+            }
+        }
+
+        for (i -= LANES; i >= 0; i -= LANES) {
+            VectorMask<Integer> differ = IntVector.fromArray(SPECIES, a, i)
+                    .compare(VectorOperators.NE, IntVector.fromArray(SPECIES, b, i));
+
+            if (differ.anyTrue()) {
+                int top = i + differ.lastTrue();
+                return a[top] > b[top] ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    String name() {
+        return "vector (" + LANES + " lanes)";
+    }
+}
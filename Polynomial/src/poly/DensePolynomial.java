@@ -0,0 +1,430 @@
+package poly;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a polynomial as a primitive array of coefficients
+ * indexed by degree, for polynomials in which most degrees up to the highest
+ * one have a non-zero term.
+ *
+ * Add, multiply and evaluate give the same results as the Polynomial methods
+ * on the equivalent linked list, but walk a flat double[] instead of one Node
+ * and one Term object per term. Instances are never modified once built.
+ *
+ * Polynomial.isDense tells from the fill ratio of a linked list whether it is
+ * worth converting.
+ *
+ */
+public final class DensePolynomial {
+
+	/**
+	 * Longest operand, in coefficients, that multiply handles term by term
+	 * rather than by Karatsuba's method
+	 */
+	static final int KARATSUBA_THRESHOLD = 32;
+
+	/**
+	 * Shortest operand, in coefficients, that multiply hands to a transform
+	 */
+	static final int TRANSFORM_THRESHOLD = 1000;
+
+	/**
+	 * The zero polynomial
+	 */
+	public static final DensePolynomial ZERO = new DensePolynomial(new double[0]);
+
+	/**
+	 * Coefficients, coeffs[i] being that of x^i. The last one is never zero, so
+	 * the zero polynomial has none.
+	 */
+	final double[] coeffs;
+
+	private DensePolynomial(double[] coeffs) {
+		this.coeffs = coeffs;
+	}
+
+	/**
+	 * Returns the polynomial with the given coefficients, lowest degree first.
+	 * The array is copied.
+	 *
+	 * @param coeffs Coefficients, coeffs[i] being that of x^i
+	 * @return Dense polynomial
+	 */
+	public static DensePolynomial of(double... coeffs) {
+		return wrap(coeffs.clone(), coeffs.length);
+	}
+
+	/**
+	 * Wraps the first length coefficients of an array that no one else holds.
+	 */
+	static DensePolynomial wrap(double[] coeffs, int length) {
+		length = significant(coeffs, length);
+
+		if (length == 0) {
+			return ZERO;
+		}
+
+		return new DensePolynomial(length == coeffs.length ? coeffs : Arrays.copyOf(coeffs, length));
+	}
+
+	/**
+	 * Converts a polynomial linked list. Terms of equal degree are added up.
+	 *
+	 * @param poly Polynomial (front of linked list)
+	 * @return Dense polynomial with the same terms
+	 */
+	public static DensePolynomial fromNodes(Node poly) {
+		int degree = -1;
+
+		for (Node node = poly; node != null; node = node.next) {
+			degree = Math.max(degree, node.term.degree);
+		}
+
+		double[] coeffs = new double[degree + 1];
+
+		for (Node node = poly; node != null; node = node.next) {
+			coeffs[node.term.degree] += node.term.coeff;
+		}
+
+		return wrap(coeffs, coeffs.length);
+	}
+
+	/**
+	 * Converts this polynomial to a linked list, lowest degree first and without
+	 * zero terms, as Polynomial.read and Polynomial.add build them.
+	 *
+	 * @return Polynomial (front of linked list), null for the zero polynomial
+	 */
+	public Node toNodes() {
+		Node poly = null;
+
+		for (int i = coeffs.length - 1; i >= 0; i--) {
+			float coeff = (float) coeffs[i];
+
+			if (coeff != 0) {
+				poly = new Node(coeff, i, poly);
+			}
+		}
+
+		return poly;
+	}
+
+	/**
+	 * Returns the degree of this polynomial, -1 for the zero polynomial.
+	 */
+	public int degree() {
+		return coeffs.length - 1;
+	}
+
+	/**
+	 * Returns the coefficient of x^degree, 0 beyond the degree of this
+	 * polynomial.
+	 *
+	 * @param degree Degree, must not be negative
+	 * @return Coefficient
+	 */
+	public double coefficient(int degree) {
+		return degree < coeffs.length ? coeffs[degree] : 0;
+	}
+
+	/**
+	 * Returns the sum of two polynomials.
+	 *
+	 * @param poly1 First polynomial
+	 * @param poly2 Second polynomial
+	 * @return A new polynomial which is the sum of the input polynomials
+	 */
+	public static DensePolynomial add(DensePolynomial poly1, DensePolynomial poly2) {
+		double[] a = poly1.coeffs, b = poly2.coeffs;
+
+		if (a.length < b.length) {
+			double[] t = a;
+			a = b;
+			b = t;
+		}
+
+		double[] sum = Arrays.copyOf(a, a.length);
+
+		for (int i = 0; i < b.length; i++) {
+			sum[i] += b[i];
+		}
+
+		return wrap(sum, sum.length);
+	}
+
+	/**
+	 * Returns the product of two polynomials. Operands of up to
+	 * KARATSUBA_THRESHOLD coefficients are multiplied term by term, longer ones
+	 * by Karatsuba's method. Once both have at least TRANSFORM_THRESHOLD
+	 * coefficients, each operand is scaled by a power of two that makes all its
+	 * coefficients integers, which is exact, and the integers are multiplied
+	 * exactly, by a floating-point FFT whose result is rounded when
+	 * fftErrorBound is below 1/2, and otherwise by a number-theoretic transform.
+	 * This needs the scaled product's coefficients to stay below about 4.7 *
+	 * 10^17; when they do not, Karatsuba's method is used at every length.
+	 * Either way, coefficients that cancel out come out as exactly zero.
+	 *
+	 * @param poly1 First polynomial
+	 * @param poly2 Second polynomial
+	 * @return A new polynomial which is the product of the input polynomials
+	 */
+	public static DensePolynomial multiply(DensePolynomial poly1, DensePolynomial poly2) {
+		double[] a = poly1.coeffs, b = poly2.coeffs;
+
+		if (a.length == 0 || b.length == 0) {
+			return ZERO;
+		}
+
+		double[] product = null;
+
+		if (Math.min(a.length, b.length) >= TRANSFORM_THRESHOLD) {
+			product = transformMultiply(a, b);
+		}
+
+		if (product == null) {
+			product = new double[a.length + b.length - 1];
+			multiply(a, 0, a.length, b, 0, b.length, product, 0);
+		}
+
+		return wrap(product, product.length);
+	}
+
+	/**
+	 * Returns the exact product of a and b by a transform, or null if their
+	 * coefficients, once scaled to integers, are too large for it.
+	 */
+	private static double[] transformMultiply(double[] a, double[] b) {
+		int sa = lowestBit(a), sb = lowestBit(b);
+
+		if (sa == Integer.MIN_VALUE || sb == Integer.MIN_VALUE) {
+			return null;
+		}
+
+		double[] x = scalb(a, -sa), y = scalb(b, -sb);
+
+		if (!NttMultiplier.fits(x, x.length, y, y.length)) {
+			return null;
+		}
+
+		double[] product;
+
+		// the FFT is several times faster, and exact too once rounded if its
+		// error stays below 1/2
+		if (FftMultiplier.errorBound(x, x.length, y, y.length) < 0.5) {
+			product = FftMultiplier.multiply(x, x.length, y, y.length);
+			for (int i = 0; i < product.length; i++) {
+				product[i] = Math.rint(product[i]);
+			}
+		} else {
+			product = NttMultiplier.multiply(x, x.length, y, y.length);
+		}
+
+		return sa + sb == 0 ? product : scalb(product, sa + sb);
+	}
+
+	/**
+	 * Returns the product of two polynomials by the floating-point FFT, without
+	 * rounding, in O(n log n) whatever the coefficients. Every coefficient is
+	 * within fftErrorBound of the exact one, so terms that should cancel out
+	 * may be left as small non-zero values.
+	 *
+	 * @param poly1 First polynomial
+	 * @param poly2 Second polynomial
+	 * @return A new polynomial which is the product of the input polynomials,
+	 *         within fftErrorBound
+	 * @throws IllegalArgumentException If the product is too long for a
+	 *                                  transform
+	 */
+	public static DensePolynomial fftMultiply(DensePolynomial poly1, DensePolynomial poly2) {
+		double[] a = poly1.coeffs, b = poly2.coeffs;
+
+		if (a.length == 0 || b.length == 0) {
+			return ZERO;
+		}
+
+		double[] product = FftMultiplier.multiply(a, a.length, b, b.length);
+		return wrap(product, product.length);
+	}
+
+	/**
+	 * Returns a bound on the absolute error of every coefficient of the product
+	 * of two polynomials computed by fftMultiply. It grows with the
+	 * Euclidean norms of the operands and the logarithm of their length.
+	 *
+	 * @param poly1 First polynomial
+	 * @param poly2 Second polynomial
+	 * @return Bound on the absolute error of the FFT product
+	 */
+	public static double fftErrorBound(DensePolynomial poly1, DensePolynomial poly2) {
+		if (poly1.coeffs.length == 0 || poly2.coeffs.length == 0) {
+			return 0;
+		}
+
+		return FftMultiplier.errorBound(poly1.coeffs, poly1.coeffs.length, poly2.coeffs, poly2.coeffs.length);
+	}
+
+	/**
+	 * Adds a[aoff .. aoff+alen) * b[boff .. boff+blen) into out from ooff on.
+	 * Unbalanced operands are cut into slices as long as the shorter one.
+	 */
+	static void multiply(double[] a, int aoff, int alen, double[] b, int boff, int blen, double[] out, int ooff) {
+		if (alen < blen) {
+			multiply(b, boff, blen, a, aoff, alen, out, ooff);
+		} else if (blen <= KARATSUBA_THRESHOLD) {
+			schoolbook(a, aoff, alen, b, boff, blen, out, ooff);
+		} else if (alen == blen) {
+			karatsuba(a, aoff, b, boff, blen, out, ooff);
+		} else {
+			for (int s = 0; s < alen; s += blen) {
+				multiply(a, aoff + s, Math.min(blen, alen - s), b, boff, blen, out, ooff + s);
+			}
+		}
+	}
+
+	private static void schoolbook(double[] a, int aoff, int alen, double[] b, int boff, int blen, double[] out,
+			int ooff) {
+		for (int i = 0; i < alen; i++) {
+			double ai = a[aoff + i];
+
+			if (ai == 0) {
+				continue;
+			}
+
+			for (int j = 0; j < blen; j++) {
+				out[ooff + i + j] += ai * b[boff + j];
+			}
+		}
+	}
+
+	/**
+	 * Adds the product of two n-coefficient slices into out. With a = a0 + a1 x^h
+	 * and b = b0 + b1 x^h, the product is z0 + (z1 - z0 - z2) x^h + z2 x^2h
+	 * where z0 = a0 b0, z2 = a1 b1 and z1 = (a0 + a1)(b0 + b1): three half-size
+	 * products instead of four.
+	 */
+	private static void karatsuba(double[] a, int aoff, double[] b, int boff, int n, double[] out, int ooff) {
+		int h = n / 2, hi = n - h;
+
+		double[] z0 = new double[2 * h - 1];
+		double[] z2 = new double[2 * hi - 1];
+		multiply(a, aoff, h, b, boff, h, z0, 0);
+		multiply(a, aoff + h, hi, b, boff + h, hi, z2, 0);
+
+		double[] asum = new double[hi];
+		double[] bsum = new double[hi];
+		for (int i = 0; i < hi; i++) {
+			asum[i] = a[aoff + h + i] + (i < h ? a[aoff + i] : 0);
+			bsum[i] = b[boff + h + i] + (i < h ? b[boff + i] : 0);
+		}
+
+		double[] z1 = new double[2 * hi - 1];
+		multiply(asum, 0, hi, bsum, 0, hi, z1, 0);
+
+		for (int i = 0; i < z0.length; i++) {
+			out[ooff + i] += z0[i];
+			z1[i] -= z0[i];
+		}
+		for (int i = 0; i < z2.length; i++) {
+			out[ooff + 2 * h + i] += z2[i];
+			z1[i] -= z2[i];
+		}
+		for (int i = 0; i < z1.length; i++) {
+			out[ooff + h + i] += z1[i];
+		}
+	}
+
+	/**
+	 * Evaluates this polynomial at a given value, by Horner's scheme.
+	 *
+	 * @param x Value at which evaluation is to be done
+	 * @return Value of this polynomial at x
+	 */
+	public double evaluate(double x) {
+		double answer = 0;
+
+		for (int i = coeffs.length - 1; i >= 0; i--) {
+			answer = answer * x + coeffs[i];
+		}
+
+		return answer;
+	}
+
+	/**
+	 * Evaluates this polynomial at many values, by Horner's scheme in double,
+	 * several values at a time when the Vector API is available. Each value is
+	 * narrowed to float once, at the end.
+	 *
+	 * @param xs  Values at which evaluation is to be done
+	 * @param out Array that receives the value at xs[i] in out[i]
+	 * @throws IllegalArgumentException If out is shorter than xs
+	 */
+	public void evaluate(float[] xs, float[] out) {
+		if (out.length < xs.length) {
+			throw new IllegalArgumentException("output shorter than values");
+		}
+
+		EvaluationKernels.INSTANCE.horner(coeffs, xs, out, 0, xs.length);
+	}
+
+	/**
+	 * Returns the exponent of the lowest set bit over the non-zero coefficients,
+	 * so that scalb(x, -lowestBit(x)) has only integer coefficients, or
+	 * Integer.MIN_VALUE if one of them is infinite or NaN.
+	 */
+	private static int lowestBit(double[] x) {
+		int lowest = Integer.MAX_VALUE;
+
+		for (double coeff : x) {
+			if (coeff == 0) {
+				continue;
+			}
+
+			long bits = Double.doubleToRawLongBits(coeff);
+			int exponent = (int) (bits >>> 52) & 0x7ff;
+			long mantissa = bits & ((1L << 52) - 1);
+
+			if (exponent == 0x7ff) {
+				return Integer.MIN_VALUE;
+			} else if (exponent == 0) { // subnormal
+				lowest = Math.min(lowest, -1074 + Long.numberOfTrailingZeros(mantissa));
+			} else {
+				lowest = Math.min(lowest, exponent - 1075 + Long.numberOfTrailingZeros(mantissa | 1L << 52));
+			}
+		}
+
+		return lowest;
+	}
+
+	/**
+	 * Returns x times 2^scale, in a new array
+	 */
+	private static double[] scalb(double[] x, int scale) {
+		double[] scaled = new double[x.length];
+
+		for (int i = 0; i < x.length; i++) {
+			scaled[i] = Math.scalb(x[i], scale);
+		}
+
+		return scaled;
+	}
+
+	/**
+	 * Number of coefficients up to the last non-zero one
+	 */
+	private static int significant(double[] coeffs, int length) {
+		while (length > 0 && coeffs[length - 1] == 0) {
+			length--;
+		}
+
+		return length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return Polynomial.toString(toNodes());
+	}
+}
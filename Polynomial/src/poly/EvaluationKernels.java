@@ -0,0 +1,51 @@
+package poly;
+
+/**
+ * This class holds the inner loop of batched polynomial evaluation, Horner's
+ * scheme at many values, in plain Java. INSTANCE is replaced by the Vector API
+ * version when the jdk.incubator.vector module is available at run time
+ * (--add-modules jdk.incubator.vector) and the system property poly.vector is
+ * not false.
+ *
+ */
+class EvaluationKernels {
+
+	static final EvaluationKernels INSTANCE = load();
+
+	/**
+	 * Sets out[i] to the value at xs[i] of the polynomial with coefficients
+	 * coeffs, lowest degree first, for every i in [from, to). The arithmetic is
+	 * in double, one multiplication and one addition per coefficient, and the
+	 * value is narrowed to float once at the end.
+	 */
+	void horner(double[] coeffs, float[] xs, float[] out, int from, int to) {
+		for (int i = from; i < to; i++) {
+			double x = xs[i];
+			double answer = 0;
+
+			for (int j = coeffs.length - 1; j >= 0; j--) {
+				answer = answer * x + coeffs[j];
+			}
+
+			out[i] = (float) answer;
+		}
+	}
+
+	String name() {
+		return "scalar";
+	}
+
+	private static EvaluationKernels load() {
+		if (!Boolean.parseBoolean(System.getProperty("poly.vector", "true"))) {
+			return new EvaluationKernels();
+		}
+
+		try {
+			return (EvaluationKernels) Class.forName("poly.VectorEvaluationKernels").getDeclaredConstructor()
+					.newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// jdk.incubator.vector is not in the boot layer
+			return new EvaluationKernels();
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package poly;
+
+/**
+ * This class multiplies dense polynomials with a complex fast Fourier
+ * transform in double precision.
+ *
+ * Both operands are packed into one complex vector, a + ib, whose square has
+ * imaginary part 2ab. One forward transform, a pointwise square and one inverse
+ * transform thus give the whole product, in O(n log n). b is first scaled to
+ * the same Euclidean norm as a, so that the packing costs no accuracy.
+ *
+ * The result is rounded. errorBound gives a bound on the absolute error of any
+ * coefficient, from Percival's analysis of the transform to first order in the
+ * unit roundoff.
+ *
+ */
+final class FftMultiplier {
+
+	/**
+	 * Longest transform, which is also the longest product
+	 */
+	static final int MAX_LENGTH = 1 << 27;
+
+	private static final double EPSILON = Math.ulp(1.0) / 2;
+
+	private FftMultiplier() {
+	}
+
+	/**
+	 * Returns the transform length needed for a product of alen + blen - 1
+	 * coefficients, or -1 if it is too long.
+	 */
+	static int transformLength(int alen, int blen) {
+		long needed = (long) alen + blen - 1;
+		int n = 1;
+
+		while (n < needed && n < MAX_LENGTH) {
+			n <<= 1;
+		}
+
+		return n >= needed ? n : -1;
+	}
+
+	/**
+	 * Returns a bound on the absolute error of every coefficient of the product
+	 * of a and b computed by multiply.
+	 */
+	static double errorBound(double[] a, int alen, double[] b, int blen) {
+		int n = transformLength(alen, blen);
+		double log = Integer.numberOfTrailingZeros(n);
+
+		// |error| <= |a|_2 |b|_2 ((1+e)^3L (1+e sqrt5)^(3L+1) (1+beta)^3L - 1), to
+		// first order in e, with the twiddle factors' own error beta below e
+		double terms = 3 * log + Math.sqrt(5) * (3 * log + 1) + 3 * log;
+		return norm(a, alen) * norm(b, blen) * terms * EPSILON;
+	}
+
+	/**
+	 * Returns the product of a[0 .. alen) and b[0 .. blen) in a new array of
+	 * alen + blen - 1 coefficients.
+	 */
+	static double[] multiply(double[] a, int alen, double[] b, int blen) {
+		int n = transformLength(alen, blen);
+
+		if (n < 0) {
+			throw new IllegalArgumentException("product too long for a transform");
+		}
+
+		double[] re = new double[n];
+		double[] im = new double[n];
+		System.arraycopy(a, 0, re, 0, alen);
+
+		// scaling b to the norm of a keeps |a + ib|^2 down to 2 |a| |b|, on which
+		// the error of the square depends
+		double na = norm(a, alen), nb = norm(b, blen);
+		double s = na > 0 && nb > 0 ? na / nb : 1;
+
+		for (int k = 0; k < blen; k++) {
+			im[k] = b[k] * s;
+		}
+
+		double[] cos = new double[n / 2];
+		double[] sin = new double[n / 2];
+		for (int k = 0; k < n / 2; k++) {
+			double angle = 2 * Math.PI * k / n;
+			cos[k] = Math.cos(angle);
+			sin[k] = Math.sin(angle);
+		}
+
+		transform(re, im, cos, sin, false);
+
+		for (int k = 0; k < n; k++) {
+			double r = re[k], i = im[k];
+			re[k] = r * r - i * i;
+			im[k] = 2 * r * i;
+		}
+
+		transform(re, im, cos, sin, true);
+
+		double[] product = new double[alen + blen - 1];
+		double scale = 0.5 / n / s;
+
+		for (int k = 0; k < product.length; k++) {
+			product[k] = im[k] * scale;
+		}
+
+		return product;
+	}
+
+	/**
+	 * In-place iterative radix-2 transform, forward with e^(-2 pi i k/n) or, if
+	 * inverse, with e^(2 pi i k/n) and without the 1/n scaling.
+	 */
+	private static void transform(double[] re, double[] im, double[] cos, double[] sin, boolean inverse) {
+		int n = re.length;
+
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+
+			if (i < j) {
+				double t = re[i];
+				re[i] = re[j];
+				re[j] = t;
+				t = im[i];
+				im[i] = im[j];
+				im[j] = t;
+			}
+		}
+
+		double sign = inverse ? 1 : -1;
+
+		for (int len = 2; len <= n; len <<= 1) {
+			int half = len >> 1;
+			int step = n / len;
+
+			for (int start = 0; start < n; start += len) {
+				for (int k = 0; k < half; k++) {
+					double wr = cos[k * step], wi = sign * sin[k * step];
+					int p = start + k, q = p + half;
+
+					double xr = re[q] * wr - im[q] * wi;
+					double xi = re[q] * wi + im[q] * wr;
+
+					re[q] = re[p] - xr;
+					im[q] = im[p] - xi;
+					re[p] += xr;
+					im[p] += xi;
+				}
+			}
+		}
+	}
+
+	private static double norm(double[] x, int len) {
+		double sum = 0;
+
+		for (int i = 0; i < len; i++) {
+			sum += x[i] * x[i];
+		}
+
+		return Math.sqrt(sum);
+	}
+}
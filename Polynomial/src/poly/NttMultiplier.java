@@ -0,0 +1,197 @@
+package poly;
+
+/**
+ * This class multiplies dense polynomials with integer coefficients exactly,
+ * with a number-theoretic transform. The coefficients are convolved modulo two
+ * word-sized primes and each coefficient of the product is rebuilt with the
+ * Chinese Remainder Theorem.
+ *
+ * The product of the primes is about 9.5 * 10^17, so the result is exact as
+ * long as every coefficient of the product stays below half of it in
+ * magnitude, which fits checks for a pair of operands. Coefficients above 2^53
+ * are still rounded once, when stored as doubles.
+ *
+ */
+final class NttMultiplier {
+
+	/**
+	 * Primes of the form c * 2^k + 1, with a primitive root of each
+	 */
+	static final long[] PRIMES = { 2013265921L, 469762049L };
+	private static final long[] GENERATORS = { 31, 3 };
+
+	/**
+	 * Longest transform supported by both primes
+	 */
+	static final int MAX_LENGTH = 1 << 26;
+
+	private static final long P1_INV_MOD_P2 = power(PRIMES[0] % PRIMES[1], PRIMES[1] - 2, PRIMES[1]);
+
+	private static final long MODULUS = PRIMES[0] * PRIMES[1];
+
+	private NttMultiplier() {
+	}
+
+	/**
+	 * Tells whether the product of a[0 .. alen) and b[0 .. blen) can be
+	 * computed exactly: every coefficient must be an integer, and the largest
+	 * possible coefficient of the product, max|a| max|b| min(alen, blen), below
+	 * half the product of the primes.
+	 */
+	static boolean fits(double[] a, int alen, double[] b, int blen) {
+		int n = FftMultiplier.transformLength(alen, blen);
+
+		if (n < 0 || n > MAX_LENGTH) {
+			return false;
+		}
+
+		double amax = integerMax(a, alen), bmax = integerMax(b, blen);
+
+		return amax >= 0 && bmax >= 0 && amax * bmax * Math.min(alen, blen) < MODULUS / 2;
+	}
+
+	/**
+	 * Returns the exact product of a[0 .. alen) and b[0 .. blen), which must
+	 * fit, in a new array of alen + blen - 1 coefficients.
+	 */
+	static double[] multiply(double[] a, int alen, double[] b, int blen) {
+		int n = FftMultiplier.transformLength(alen, blen);
+		long[][] residues = new long[PRIMES.length][];
+
+		for (int p = 0; p < PRIMES.length; p++) {
+			residues[p] = convolve(a, alen, b, blen, n, p);
+		}
+
+		double[] product = new double[alen + blen - 1];
+		long p1 = PRIMES[0], p2 = PRIMES[1];
+
+		for (int k = 0; k < product.length; k++) {
+			long r1 = residues[0][k], r2 = residues[1][k];
+
+			// x = r1 + p1 t with t = (r2 - r1) / p1 mod p2, then back to signed
+			long t = (r2 - r1 % p2 + p2) % p2 * P1_INV_MOD_P2 % p2;
+			long x = r1 + p1 * t;
+
+			product[k] = x > MODULUS / 2 ? x - MODULUS : x;
+		}
+
+		return product;
+	}
+
+	/**
+	 * Returns the cyclic convolution of length n of a and b modulo PRIMES[p].
+	 */
+	private static long[] convolve(double[] a, int alen, double[] b, int blen, int n, int p) {
+		long prime = PRIMES[p];
+		long[] x = new long[n];
+		long[] y = new long[n];
+
+		for (int i = 0; i < alen; i++) {
+			x[i] = reduce(a[i], prime);
+		}
+		for (int i = 0; i < blen; i++) {
+			y[i] = reduce(b[i], prime);
+		}
+
+		transform(x, prime, GENERATORS[p], false);
+		transform(y, prime, GENERATORS[p], false);
+
+		for (int i = 0; i < n; i++) {
+			x[i] = x[i] * y[i] % prime;
+		}
+
+		transform(x, prime, GENERATORS[p], true);
+
+		long inverse = power(n, prime - 2, prime);
+
+		for (int i = 0; i < n; i++) {
+			x[i] = x[i] * inverse % prime;
+		}
+
+		return x;
+	}
+
+	/**
+	 * In-place iterative radix-2 transform modulo prime, without the 1/n
+	 * scaling of the inverse.
+	 */
+	private static void transform(long[] x, long prime, long generator, boolean inverse) {
+		int n = x.length;
+
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+
+			if (i < j) {
+				long t = x[i];
+				x[i] = x[j];
+				x[j] = t;
+			}
+		}
+
+		for (int len = 2; len <= n; len <<= 1) {
+			long root = power(generator, (prime - 1) / len, prime);
+			if (inverse) {
+				root = power(root, prime - 2, prime);
+			}
+
+			int half = len >> 1;
+
+			// powers of the root for this stage, shared by all its blocks
+			long[] w = new long[half];
+			w[0] = 1;
+			for (int k = 1; k < half; k++) {
+				w[k] = w[k - 1] * root % prime;
+			}
+
+			for (int start = 0; start < n; start += len) {
+				for (int k = 0; k < half; k++) {
+					int i = start + k, j = i + half;
+					long u = x[i], v = x[j] * w[k] % prime;
+
+					x[i] = u + v < prime ? u + v : u + v - prime;
+					x[j] = u - v >= 0 ? u - v : u - v + prime;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Largest magnitude of x[0 .. len), or -1 if one of them is not an integer
+	 */
+	private static double integerMax(double[] x, int len) {
+		double max = 0;
+
+		for (int i = 0; i < len; i++) {
+			if (x[i] != Math.rint(x[i])) {
+				return -1;
+			}
+			max = Math.max(max, Math.abs(x[i]));
+		}
+
+		return max;
+	}
+
+	private static long reduce(double value, long prime) {
+		long r = (long) value % prime;
+		return r < 0 ? r + prime : r;
+	}
+
+	private static long power(long base, long exponent, long modulus) {
+		long result = 1;
+		base %= modulus;
+
+		while (exponent > 0) {
+			if ((exponent & 1) != 0) {
+				result = result * base % modulus;
+			}
+			base = base * base % modulus;
+			exponent >>= 1;
+		}
+
+		return result;
+	}
+}
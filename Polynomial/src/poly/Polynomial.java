@@ -1,6 +1,7 @@
 package poly;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -11,6 +12,15 @@ import java.util.Scanner;
  */
 public class Polynomial {
 
+	/**
+	 * Smallest fill ratio, terms per degree up to the highest, at which a
+	 * polynomial is better held in a DensePolynomial than in a SparsePolynomial.
+	 * A dense slot costs 8 bytes where a sparse term costs 12, but dense loops
+	 * index by degree with no merging or heap, so dense wins well before every
+	 * degree is used.
+	 */
+	public static final double DENSE_FILL = 0.25;
+
 	/**
 	 * Reads a polynomial from an input stream (file or keyboard). The storage
 	 * format of the polynomial is:
@@ -107,6 +117,10 @@ public class Polynomial {
 	 * polynomials. The returned polynomial MUST have all new nodes. In other words,
 	 * none of the nodes of the input polynomials can be in the result.
 	 * 
+	 * Each term product is added once into the slot of its degree, so the cost is
+	 * one step per pair of terms. Two dense inputs are multiplied as
+	 * DensePolynomials, with Karatsuba's method when they are long.
+	 * 
 	 * @param poly1 First input polynomial (front of polynomial linked list)
 	 * @param poly2 Second input polynomial (front of polynomial linked list)
 	 * @return A new polynomial which is the product of the input polynomials - the
@@ -117,49 +131,136 @@ public class Polynomial {
 			return null;
 		}
 
-		Node node1 = poly1;
-		Node node2 = poly2;
-		Node newNode = null;
+		if (isDense(poly1) && isDense(poly2)) {
+			DensePolynomial product = DensePolynomial.multiply(DensePolynomial.fromNodes(poly1),
+					DensePolynomial.fromNodes(poly2));
+			return product.toNodes();
+		}
+
+		long products = (long) terms(poly1) * terms(poly2);
+		int degree = degree(poly1) + degree(poly2);
 
-		while (node1 != null) {
-			while (node2 != null) {
-				Node createdNode = new Node(node1.term.coeff * node2.term.coeff, node1.term.degree + node2.term.degree,
-						null);
+		// every term product is added straight into its degree's slot, in a
+		// buffer indexed by degree if the products fill enough of it, otherwise
+		// in a hash table keyed by degree
+		if (degree + 1 <= products / DENSE_FILL) {
+			double[] coeffs = new double[degree + 1];
 
-				if (newNode == null) {
-					newNode = createdNode;
-				} else {
-					newNode = add(createdNode, newNode);
+			for (Node node1 = poly1; node1 != null; node1 = node1.next) {
+				for (Node node2 = poly2; node2 != null; node2 = node2.next) {
+					coeffs[node1.term.degree + node2.term.degree] += (double) node1.term.coeff * node2.term.coeff;
 				}
-				node2 = node2.next;
 			}
 
-			node2 = poly2;
-			node1 = node1.next;
+			return DensePolynomial.wrap(coeffs, coeffs.length).toNodes();
 		}
 
-		return newNode;
+		DegreeTable table = new DegreeTable(Math.min(products, degree + 1));
+
+		for (Node node1 = poly1; node1 != null; node1 = node1.next) {
+			for (Node node2 = poly2; node2 != null; node2 = node2.next) {
+				table.add(node1.term.degree + node2.term.degree, (double) node1.term.coeff * node2.term.coeff);
+			}
+		}
+
+		return table.toNodes();
 	}
 
 	/**
-	 * Evaluates a polynomial at a given value.
+	 * Evaluates a polynomial at a given value. The list is walked once, lowest
+	 * degree first, each power of x being obtained from the previous one.
 	 * 
 	 * @param poly Polynomial (front of linked list) to be evaluated
 	 * @param x    Value at which evaluation is to be done
 	 * @return Value of polynomial p at x
 	 */
 	public static float evaluate(Node poly, float x) {
-		Node crnt = poly;
 		float answer = 0;
+		double power = 1;
+		int degree = 0;
 
-		while (crnt != null) {
-			answer += crnt.term.coeff * Math.pow(x, crnt.term.degree);
-			crnt = crnt.next;
+		for (Node crnt = poly; crnt != null; crnt = crnt.next) {
+			int gap = crnt.term.degree - degree;
+			power = gap >= 0 ? power * power(x, gap) : power(x, crnt.term.degree);
+			degree = crnt.term.degree;
+
+			answer += crnt.term.coeff * power;
 		}
 
 		return answer;
 	}
 
+	/**
+	 * Evaluates a polynomial at many values. The list is converted once to a
+	 * compact coefficient array, a DensePolynomial or a SparsePolynomial
+	 * according to isDense, which then evaluates every value by Horner's
+	 * scheme, in double arithmetic as evaluate(poly, x) does, with one
+	 * narrowing to float per value. Dense polynomials are evaluated several
+	 * values at a time with the Vector API when it is available.
+	 * 
+	 * @param poly Polynomial (front of linked list) to be evaluated
+	 * @param xs   Values at which evaluation is to be done
+	 * @param out  Array that receives the value at xs[i] in out[i]
+	 * @throws IllegalArgumentException If out is shorter than xs
+	 */
+	public static void evaluate(Node poly, float[] xs, float[] out) {
+		if (isDense(poly)) {
+			DensePolynomial.fromNodes(poly).evaluate(xs, out);
+		} else {
+			SparsePolynomial.fromNodes(poly).evaluate(xs, out);
+		}
+	}
+
+	/**
+	 * Returns x^n, for n >= 0, by repeated squaring.
+	 */
+	static double power(double x, int n) {
+		double result = 1;
+
+		while (n != 0) {
+			if ((n & 1) != 0) {
+				result *= x;
+			}
+			x *= x;
+			n >>>= 1;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Tells whether a polynomial has enough terms for its degree to be held in a
+	 * DensePolynomial, that is whether its fill ratio is at least DENSE_FILL.
+	 * 
+	 * @param poly Polynomial (front of linked list)
+	 * @return True if the polynomial should be a DensePolynomial, false if it
+	 *         should be a SparsePolynomial
+	 */
+	public static boolean isDense(Node poly) {
+		int terms = terms(poly);
+		return terms > 0 && terms >= DENSE_FILL * (degree(poly) + 1);
+	}
+
+	private static int terms(Node poly) {
+		int terms = 0;
+
+		for (Node node = poly; node != null; node = node.next) {
+			terms++;
+		}
+
+		return terms;
+	}
+
+	private static int degree(Node poly) {
+		int degree = -1;
+
+		for (Node node = poly; node != null; node = node.next) {
+			degree = Math.max(degree, node.term.degree);
+		}
+
+		return degree;
+	}
+
 	/**
 	 * Returns string representation of a polynomial
 	 * 
@@ -177,4 +278,93 @@ public class Polynomial {
 		}
 		return retval;
 	}
+
+	/**
+	 * Open-addressing hash table from degree to coefficient, on primitive
+	 * arrays, for products whose degrees are too spread out for a buffer.
+	 */
+	private static class DegreeTable {
+
+		private static final int EMPTY = -1;
+
+		int[] degrees;
+		double[] coeffs;
+		int size;
+
+		/**
+		 * Creates a table sized for the given number of degrees.
+		 */
+		DegreeTable(long expected) {
+			int capacity = Integer.highestOneBit((int) Math.min(Math.max(expected, 32), 1 << 29) * 2 - 1) * 2;
+			degrees = new int[capacity];
+			coeffs = new double[capacity];
+			Arrays.fill(degrees, EMPTY);
+		}
+
+		void add(int degree, double coeff) {
+			int mask = degrees.length - 1;
+			int hash = degree * 0x9E3779B9;
+			int slot = (hash ^ hash >>> 16) & mask;
+
+			while (degrees[slot] != degree) {
+				if (degrees[slot] == EMPTY) {
+					degrees[slot] = degree;
+					if (++size > degrees.length / 2) {
+						grow();
+						add(degree, coeff);
+						return;
+					}
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			coeffs[slot] += coeff;
+		}
+
+		private void grow() {
+			int[] oldDegrees = degrees;
+			double[] oldCoeffs = coeffs;
+
+			degrees = new int[2 * oldDegrees.length];
+			coeffs = new double[2 * oldCoeffs.length];
+			Arrays.fill(degrees, EMPTY);
+			size = 0;
+
+			for (int i = 0; i < oldDegrees.length; i++) {
+				if (oldDegrees[i] != EMPTY) {
+					add(oldDegrees[i], oldCoeffs[i]);
+				}
+			}
+		}
+
+		/**
+		 * Returns the non-zero terms as a list, lowest degree first.
+		 */
+		Node toNodes() {
+			// sort the occupied slots by degree, packed into longs with the degree
+			// on top
+			long[] order = new long[size];
+			int k = 0;
+
+			for (int i = 0; i < degrees.length; i++) {
+				if (degrees[i] != EMPTY) {
+					order[k++] = (long) degrees[i] << 32 | i;
+				}
+			}
+			Arrays.sort(order);
+
+			Node poly = null;
+
+			for (int i = order.length - 1; i >= 0; i--) {
+				float coeff = (float) coeffs[(int) order[i]];
+
+				if (coeff != 0) {
+					poly = new Node(coeff, (int) (order[i] >>> 32), poly);
+				}
+			}
+
+			return poly;
+		}
+	}
 }
@@ -0,0 +1,428 @@
+package poly;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a polynomial as two parallel primitive arrays, the
+ * degrees of its non-zero terms in increasing order and their coefficients,
+ * for polynomials with large gaps between degrees.
+ *
+ * A term costs 12 bytes instead of a Node and a Term object. Add is a linear
+ * merge of the two arrays. Multiply uses Johnson's heap algorithm: one heap
+ * entry per term of the shorter operand points at the next term of the longer
+ * one it is to be multiplied with, so the term products come out in increasing
+ * degree, equal degrees are added up as they come, and the heap never holds
+ * more than one entry per term. The heap and the result live in primitive
+ * arrays sized up front, so neither inner loop allocates.
+ *
+ * Add, multiply and evaluate give the same results as the Polynomial methods
+ * on the equivalent linked list. Instances are never modified once built.
+ *
+ */
+public final class SparsePolynomial {
+
+	/**
+	 * The zero polynomial
+	 */
+	public static final SparsePolynomial ZERO = new SparsePolynomial(new int[0], new double[0]);
+
+	/**
+	 * Degrees of the non-zero terms, in increasing order
+	 */
+	final int[] degrees;
+
+	/**
+	 * Coefficients of the terms, none of them zero
+	 */
+	final double[] coeffs;
+
+	private SparsePolynomial(int[] degrees, double[] coeffs) {
+		this.degrees = degrees;
+		this.coeffs = coeffs;
+	}
+
+	/**
+	 * Returns the polynomial with the given terms. The terms may come in any
+	 * order; terms of equal degree are added up and zero terms dropped. The
+	 * arrays are copied.
+	 *
+	 * @param degrees Degrees of the terms, none of them negative
+	 * @param coeffs  Coefficients of the terms, as many as degrees
+	 * @return Sparse polynomial
+	 * @throws IllegalArgumentException If the arrays differ in length
+	 */
+	public static SparsePolynomial of(int[] degrees, double[] coeffs) {
+		if (degrees.length != coeffs.length) {
+			throw new IllegalArgumentException("degrees and coefficients differ in length");
+		}
+
+		int n = degrees.length;
+		boolean sorted = true;
+
+		for (int i = 1; i < n && sorted; i++) {
+			sorted = degrees[i - 1] < degrees[i];
+		}
+
+		if (sorted) {
+			return wrap(degrees.clone(), coeffs.clone(), n);
+		}
+
+		// sort the term indices by degree, packed into longs with the degree on top
+		long[] order = new long[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = (long) degrees[i] << 32 | i;
+		}
+		Arrays.sort(order);
+
+		int[] d = new int[n];
+		double[] c = new double[n];
+		int k = -1;
+
+		for (long entry : order) {
+			int degree = (int) (entry >>> 32);
+			double coeff = coeffs[(int) entry];
+
+			if (k >= 0 && d[k] == degree) {
+				c[k] += coeff;
+			} else {
+				d[++k] = degree;
+				c[k] = coeff;
+			}
+		}
+
+		return wrap(d, c, k + 1);
+	}
+
+	/**
+	 * Wraps the first length terms of two arrays that no one else holds, in
+	 * increasing order of degree, dropping the zero terms.
+	 */
+	static SparsePolynomial wrap(int[] degrees, double[] coeffs, int length) {
+		int k = 0;
+
+		for (int i = 0; i < length; i++) {
+			if (coeffs[i] != 0) {
+				degrees[k] = degrees[i];
+				coeffs[k++] = coeffs[i];
+			}
+		}
+
+		if (k == 0) {
+			return ZERO;
+		}
+		if (k < degrees.length) {
+			degrees = Arrays.copyOf(degrees, k);
+			coeffs = Arrays.copyOf(coeffs, k);
+		}
+
+		return new SparsePolynomial(degrees, coeffs);
+	}
+
+	/**
+	 * Converts a polynomial linked list. The nodes may come in any order; terms
+	 * of equal degree are added up.
+	 *
+	 * @param poly Polynomial (front of linked list)
+	 * @return Sparse polynomial with the same terms
+	 */
+	public static SparsePolynomial fromNodes(Node poly) {
+		int n = 0;
+
+		for (Node node = poly; node != null; node = node.next) {
+			n++;
+		}
+
+		int[] degrees = new int[n];
+		double[] coeffs = new double[n];
+		int i = 0;
+
+		for (Node node = poly; node != null; node = node.next, i++) {
+			degrees[i] = node.term.degree;
+			coeffs[i] = node.term.coeff;
+		}
+
+		return of(degrees, coeffs);
+	}
+
+	/**
+	 * Converts this polynomial to a linked list, lowest degree first, as
+	 * Polynomial.read and Polynomial.add build them.
+	 *
+	 * @return Polynomial (front of linked list), null for the zero polynomial
+	 */
+	public Node toNodes() {
+		Node poly = null;
+
+		for (int i = degrees.length - 1; i >= 0; i--) {
+			poly = new Node((float) coeffs[i], degrees[i], poly);
+		}
+
+		return poly;
+	}
+
+	/**
+	 * Converts a dense polynomial, keeping its non-zero coefficients.
+	 *
+	 * @param poly Dense polynomial
+	 * @return Sparse polynomial with the same terms
+	 */
+	public static SparsePolynomial fromDense(DensePolynomial poly) {
+		double[] dense = poly.coeffs;
+		int n = 0;
+
+		for (double coeff : dense) {
+			if (coeff != 0) {
+				n++;
+			}
+		}
+
+		int[] degrees = new int[n];
+		double[] coeffs = new double[n];
+		int k = 0;
+
+		for (int i = 0; i < dense.length; i++) {
+			if (dense[i] != 0) {
+				degrees[k] = i;
+				coeffs[k++] = dense[i];
+			}
+		}
+
+		return k == 0 ? ZERO : new SparsePolynomial(degrees, coeffs);
+	}
+
+	/**
+	 * Converts this polynomial to a dense one.
+	 *
+	 * @return Dense polynomial with the same terms
+	 */
+	public DensePolynomial toDense() {
+		double[] dense = new double[degree() + 1];
+
+		for (int i = 0; i < degrees.length; i++) {
+			dense[degrees[i]] = coeffs[i];
+		}
+
+		return DensePolynomial.wrap(dense, dense.length);
+	}
+
+	/**
+	 * Returns the number of non-zero terms of this polynomial.
+	 */
+	public int terms() {
+		return degrees.length;
+	}
+
+	/**
+	 * Returns the degree of this polynomial, -1 for the zero polynomial.
+	 */
+	public int degree() {
+		return degrees.length == 0 ? -1 : degrees[degrees.length - 1];
+	}
+
+	/**
+	 * Returns the coefficient of x^degree, found by binary search.
+	 *
+	 * @param degree Degree
+	 * @return Coefficient, 0 if this polynomial has no term of that degree
+	 */
+	public double coefficient(int degree) {
+		int i = Arrays.binarySearch(degrees, degree);
+		return i >= 0 ? coeffs[i] : 0;
+	}
+
+	/**
+	 * Returns the sum of two polynomials, merging their terms in one pass.
+	 *
+	 * @param poly1 First polynomial
+	 * @param poly2 Second polynomial
+	 * @return A new polynomial which is the sum of the input polynomials
+	 */
+	public static SparsePolynomial add(SparsePolynomial poly1, SparsePolynomial poly2) {
+		int[] ad = poly1.degrees, bd = poly2.degrees;
+		double[] ac = poly1.coeffs, bc = poly2.coeffs;
+		int n = ad.length, m = bd.length;
+
+		int[] degrees = new int[n + m];
+		double[] coeffs = new double[n + m];
+		int i = 0, j = 0, k = 0;
+
+		while (i < n && j < m) {
+			if (ad[i] < bd[j]) {
+				degrees[k] = ad[i];
+				coeffs[k++] = ac[i++];
+			} else if (ad[i] > bd[j]) {
+				degrees[k] = bd[j];
+				coeffs[k++] = bc[j++];
+			} else {
+				double sum = ac[i] + bc[j];
+				if (sum != 0) {
+					degrees[k] = ad[i];
+					coeffs[k++] = sum;
+				}
+				i++;
+				j++;
+			}
+		}
+
+		for (; i < n; i++, k++) {
+			degrees[k] = ad[i];
+			coeffs[k] = ac[i];
+		}
+		for (; j < m; j++, k++) {
+			degrees[k] = bd[j];
+			coeffs[k] = bc[j];
+		}
+
+		return wrap(degrees, coeffs, k);
+	}
+
+	/**
+	 * Returns the product of two polynomials, by Johnson's heap algorithm.
+	 *
+	 * @param poly1 First polynomial
+	 * @param poly2 Second polynomial
+	 * @return A new polynomial which is the product of the input polynomials
+	 */
+	public static SparsePolynomial multiply(SparsePolynomial poly1, SparsePolynomial poly2) {
+		if (poly1.degrees.length > poly2.degrees.length) {
+			SparsePolynomial t = poly1;
+			poly1 = poly2;
+			poly2 = t;
+		}
+
+		int[] ad = poly1.degrees, bd = poly2.degrees;
+		double[] ac = poly1.coeffs, bc = poly2.coeffs;
+		int n = ad.length, m = bd.length;
+
+		if (n == 0) {
+			return ZERO;
+		}
+
+		// the product has at most one term per degree and at most n * m terms
+		int capacity = (int) Math.min((long) n * m, (long) ad[n - 1] + bd[m - 1] + 1);
+		int[] degrees = new int[capacity];
+		double[] coeffs = new double[capacity];
+		int k = -1;
+
+		// heap entry h is row[h]: term row[h] of poly1 times term next[row[h]] of
+		// poly2, with key[h] the degree of that product
+		int[] row = new int[n];
+		int[] key = new int[n];
+		int[] next = new int[n];
+		int size = n;
+
+		// row i starts at column 0, and ad is increasing, so the rows already
+		// form a heap
+		for (int i = 0; i < n; i++) {
+			row[i] = i;
+			key[i] = ad[i] + bd[0];
+		}
+
+		while (size > 0) {
+			int i = row[0];
+			int degree = key[0];
+			double product = ac[i] * bc[next[i]];
+
+			if (k >= 0 && degrees[k] == degree) {
+				coeffs[k] += product;
+			} else {
+				if (k >= 0 && coeffs[k] == 0) {
+					k--;
+				}
+				degrees[++k] = degree;
+				coeffs[k] = product;
+			}
+
+			// advance the row, or drop it once it has used every column
+			if (++next[i] < m) {
+				key[0] = ad[i] + bd[next[i]];
+			} else {
+				size--;
+				row[0] = row[size];
+				key[0] = key[size];
+			}
+
+			siftDown(row, key, size);
+		}
+
+		return wrap(degrees, coeffs, k + 1);
+	}
+
+	/**
+	 * Moves the heap's first entry down to its place.
+	 */
+	private static void siftDown(int[] row, int[] key, int size) {
+		int r = row[0], kv = key[0];
+		int h = 0;
+
+		while (true) {
+			int child = 2 * h + 1;
+
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && key[child + 1] < key[child]) {
+				child++;
+			}
+			if (kv <= key[child]) {
+				break;
+			}
+
+			row[h] = row[child];
+			key[h] = key[child];
+			h = child;
+		}
+
+		row[h] = r;
+		key[h] = kv;
+	}
+
+	/**
+	 * Evaluates this polynomial at a given value, by Horner's scheme over the
+	 * gaps between degrees.
+	 *
+	 * @param x Value at which evaluation is to be done
+	 * @return Value of this polynomial at x
+	 */
+	public double evaluate(double x) {
+		int i = degrees.length - 1;
+
+		if (i < 0) {
+			return 0;
+		}
+
+		double answer = coeffs[i];
+
+		for (; i > 0; i--) {
+			answer = answer * Polynomial.power(x, degrees[i] - degrees[i - 1]) + coeffs[i - 1];
+		}
+
+		return answer * Polynomial.power(x, degrees[0]);
+	}
+
+	/**
+	 * Evaluates this polynomial at many values, one at a time.
+	 *
+	 * @param xs  Values at which evaluation is to be done
+	 * @param out Array that receives the value at xs[i] in out[i]
+	 * @throws IllegalArgumentException If out is shorter than xs
+	 */
+	public void evaluate(float[] xs, float[] out) {
+		if (out.length < xs.length) {
+			throw new IllegalArgumentException("output shorter than values");
+		}
+
+		for (int i = 0; i < xs.length; i++) {
+			out[i] = (float) evaluate(xs[i]);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return Polynomial.toString(toNodes());
+	}
+}
@@ -0,0 +1,83 @@
+package poly;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API version of the evaluation kernel, loaded by EvaluationKernels
+ * when the jdk.incubator.vector module is available.
+ *
+ * Each lane evaluates the polynomial at a different value, so one pass over
+ * the coefficients serves a whole vector of values. Horner's scheme is one long
+ * chain of dependent multiply-adds, so four vectors of values are carried
+ * through the coefficients together to keep the multipliers busy. Values are
+ * widened to double on loading and narrowed back to float on storing, so the
+ * lanes round exactly as the scalar loop does.
+ *
+ */
+class VectorEvaluationKernels extends EvaluationKernels {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	private static final int LANES = SPECIES.length();
+
+	/**
+	 * Floats with as many lanes as SPECIES, in half its size
+	 */
+	private static final VectorSpecies<Float> FLOATS = VectorSpecies.of(float.class,
+			VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+	@Override
+	void horner(double[] coeffs, float[] xs, float[] out, int from, int to) {
+		int i = from;
+
+		for (; i <= to - 4 * LANES; i += 4 * LANES) {
+			DoubleVector x0 = load(xs, i);
+			DoubleVector x1 = load(xs, i + LANES);
+			DoubleVector x2 = load(xs, i + 2 * LANES);
+			DoubleVector x3 = load(xs, i + 3 * LANES);
+			DoubleVector a0 = DoubleVector.zero(SPECIES), a1 = a0, a2 = a0, a3 = a0;
+
+			for (int j = coeffs.length - 1; j >= 0; j--) {
+				double c = coeffs[j];
+				a0 = a0.mul(x0).add(c);
+				a1 = a1.mul(x1).add(c);
+				a2 = a2.mul(x2).add(c);
+				a3 = a3.mul(x3).add(c);
+			}
+
+			store(a0, out, i);
+			store(a1, out, i + LANES);
+			store(a2, out, i + 2 * LANES);
+			store(a3, out, i + 3 * LANES);
+		}
+
+		for (; i <= to - LANES; i += LANES) {
+			DoubleVector x = load(xs, i);
+			DoubleVector answer = DoubleVector.zero(SPECIES);
+
+			for (int j = coeffs.length - 1; j >= 0; j--) {
+				answer = answer.mul(x).add(coeffs[j]);
+			}
+
+			store(answer, out, i);
+		}
+
+		super.horner(coeffs, xs, out, i, to);
+	}
+
+	private static DoubleVector load(float[] xs, int i) {
+		return (DoubleVector) FloatVector.fromArray(FLOATS, xs, i).convertShape(VectorOperators.F2D, SPECIES, 0);
+	}
+
+	private static void store(DoubleVector answer, float[] out, int i) {
+		((FloatVector) answer.convertShape(VectorOperators.D2F, FLOATS, 0)).intoArray(out, i);
+	}
+
+	@Override
+	String name() {
+		return "vector " + LANES + " lanes";
+	}
+}
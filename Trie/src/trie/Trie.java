@@ -101,14 +101,14 @@ public class Trie {
 					crntNode.firstChild = newTrieNode;
 					ret = true;
 				} else {
-					Indexes newIndexes = new Indexes(crntNode.substr.wordIndex, (short) (count),
-							crntNode.substr.endIndex);
+					Indexes newIndexes = new Indexes(crntNode.substr.wordIndex,
+							(short) (crntNode.substr.startIndex + count), crntNode.substr.endIndex);
 					TrieNode newTrieNode = new TrieNode(newIndexes, crntNode.firstChild, null);
 
 					int newTrieNode_length = newTrieNode.substr.endIndex - newTrieNode.substr.startIndex + 1;
 
 					crntNode.firstChild = newTrieNode;
-					newNode.substr.startIndex = (short) (count);
+					newNode.substr.startIndex = (short) (crntNode.substr.startIndex + count);
 					newTrieNode.sibling = newNode;
 					crntNode.substr.endIndex -= (short) (newTrieNode_length);
 
@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigAccumulator;
+import bigint.BigInteger;
+
+/**
+ * Sums a column of 30-digit values with BigInteger.add, which allocates a new
+ * total per value, and with a BigAccumulator, which adds in place. Run with
+ * -prof gc to see the bytes allocated by each. The throughput of a single add
+ * or subtract on long operands is in BigIntegerBenchmark.
+ *
+ * Both sums are checked against java.math.BigInteger before measuring.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AddBenchmark {
+
+    @Param({ "1000000" })
+    public int values;
+
+    private BigInteger[] column;
+    private BigAccumulator accumulator;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        column = new BigInteger[values];
+        java.math.BigInteger expected = java.math.BigInteger.ZERO;
+
+        for (int i = 0; i < values; i++) {
+            String digits = Inputs.digits(random, 30);
+            column[i] = BigInteger.parse(digits);
+            expected = expected.add(new java.math.BigInteger(digits));
+        }
+
+        accumulator = new BigAccumulator(40);
+        Checks.same("add", sumAdd(), expected);
+        Checks.same("BigAccumulator", sumAccumulator(), expected);
+    }
+
+    @Benchmark
+    public BigInteger sumAdd() {
+        BigInteger sum = new BigInteger();
+
+        for (BigInteger value : column) {
+            sum = BigInteger.add(sum, value);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public BigInteger sumAccumulator() {
+        accumulator.reset();
+
+        for (BigInteger value : column) {
+            accumulator.addInPlace(value);
+        }
+
+        return accumulator.toBigInteger();
+    }
+}
@@ -0,0 +1,100 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+import bigint.BigIntegerBatch;
+
+/**
+ * Element-wise sums of a million pairs of 20 to 200 digit integers, a quarter
+ * of them negative: per-element BigInteger calls against BigIntegerBatch,
+ * sequential and on the common pool. Products are timed per element only, as
+ * the mark a batch multiply would have to beat.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({ "1000000" })
+    public int pairs;
+
+    private BigInteger[] first;
+    private BigInteger[] second;
+    private BigIntegerBatch firstBatch;
+    private BigIntegerBatch secondBatch;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        first = new BigInteger[pairs];
+        second = new BigInteger[pairs];
+
+        for (int i = 0; i < pairs; i++) {
+            first[i] = value(random);
+            second[i] = value(random);
+        }
+
+        firstBatch = BigIntegerBatch.of(first);
+        secondBatch = BigIntegerBatch.of(second);
+
+        BigInteger[] sums = addPerElement();
+        Checks.same("batch add", addBatch().toArray(), sums);
+        Checks.same("parallel batch add", addBatchParallel().toArray(), sums);
+    }
+
+    private static BigInteger value(Random random) {
+        String digits = Inputs.digits(random, 20 + random.nextInt(181));
+        return BigInteger.parse(random.nextInt(4) == 0 ? "-" + digits : digits);
+    }
+
+    @Benchmark
+    public BigInteger[] addPerElement() {
+        BigInteger[] sums = new BigInteger[pairs];
+
+        for (int i = 0; i < pairs; i++) {
+            sums[i] = BigInteger.add(first[i], second[i]);
+        }
+
+        return sums;
+    }
+
+    @Benchmark
+    public BigIntegerBatch addBatch() {
+        return BigIntegerBatch.add(firstBatch, secondBatch);
+    }
+
+    @Benchmark
+    public BigIntegerBatch addBatchParallel() {
+        return BigIntegerBatch.add(firstBatch, secondBatch, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public BigInteger[] multiplyPerElement() {
+        BigInteger[] products = new BigInteger[pairs];
+
+        for (int i = 0; i < pairs; i++) {
+            products[i] = BigInteger.multiply(first[i], second[i]);
+        }
+
+        return products;
+    }
+}
@@ -0,0 +1,76 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+
+/**
+ * BigInteger arithmetic and conversions on random operands of equal length.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BigIntegerBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    public int digits;
+
+    private String firstText;
+    private BigInteger first;
+    private BigInteger second;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        firstText = Inputs.digits(random, digits);
+        first = BigInteger.parse(firstText);
+        second = BigInteger.parse(Inputs.digits(random, digits));
+    }
+
+    @Benchmark
+    public BigInteger add() {
+        return BigInteger.add(first, second);
+    }
+
+    @Benchmark
+    public BigInteger subtract() {
+        return BigInteger.subtract(first, second);
+    }
+
+    @Benchmark
+    public BigInteger multiply() {
+        return BigInteger.multiply(first, second);
+    }
+
+    @Benchmark
+    public BigInteger parse() {
+        return BigInteger.parse(firstText);
+    }
+
+    @Benchmark
+    public BigInteger parallelParse() {
+        return BigInteger.parallelParse(firstText);
+    }
+
+    @Benchmark
+    public String toText() {
+        return first.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+import bigint.BigIntegerCache;
+
+/**
+ * A job that keeps raising a few fixed bases to a few fixed exponents, with and
+ * without a BigIntegerCache, and building powers of ten.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    private BigInteger[] bases;
+    private BigIntegerCache cache;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(120);
+        bases = new BigInteger[8];
+
+        for (int i = 0; i < bases.length; i++) {
+            bases[i] = BigInteger.parse(Inputs.digits(random, 100));
+        }
+
+        cache = new BigIntegerCache();
+
+        for (int i = 0; i < 32; i++) {
+            Checks.same("cached pow", cache.pow(bases[i & 7], 20 + (i >>> 3)),
+                    BigInteger.pow(bases[i & 7], 20 + (i >>> 3)));
+        }
+    }
+
+    @Benchmark
+    public BigInteger powUncached() {
+        int i = next++ & 31;
+        return BigInteger.pow(bases[i & 7], 20 + (i >>> 3));
+    }
+
+    @Benchmark
+    public BigInteger powCached() {
+        int i = next++ & 31;
+        return cache.pow(bases[i & 7], 20 + (i >>> 3));
+    }
+
+    @Benchmark
+    public BigInteger powerOfTen() {
+        return BigInteger.powerOfTen(2000 + (next++ & 31));
+    }
+}
@@ -0,0 +1,134 @@
+package bench;
+
+import bigint.BigInteger;
+import poly.DensePolynomial;
+import poly.SparsePolynomial;
+
+/**
+ * This class cross-checks the results of the operations under measurement,
+ * from the setup of the benchmarks, so that a fast but wrong algorithm fails
+ * the run instead of reporting a time.
+ *
+ */
+public class Checks {
+
+    private Checks() {
+    }
+
+    /**
+     * Throws IllegalStateException unless two integers are equal.
+     *
+     * @param what     Operation that produced actual, for the message
+     * @param actual   Result under test
+     * @param expected Reference result
+     */
+    public static void same(String what, BigInteger actual, BigInteger expected) {
+        if (!actual.equals(expected)) {
+            throw new IllegalStateException(what + " gives a wrong result");
+        }
+    }
+
+    /**
+     * Throws IllegalStateException unless an integer has the value of a
+     * java.math.BigInteger, compared in decimal.
+     *
+     * @param what     Operation that produced actual, for the message
+     * @param actual   Result under test
+     * @param expected Reference result
+     */
+    public static void same(String what, BigInteger actual, java.math.BigInteger expected) {
+        if (!actual.toString().equals(expected.toString())) {
+            throw new IllegalStateException(what + " disagrees with java.math.BigInteger");
+        }
+    }
+
+    /**
+     * Throws IllegalStateException unless two arrays of integers are equal
+     * element by element.
+     *
+     * @param what     Operation that produced actual, for the message
+     * @param actual   Results under test
+     * @param expected Reference results
+     */
+    public static void same(String what, BigInteger[] actual, BigInteger[] expected) {
+        if (actual.length != expected.length) {
+            throw new IllegalStateException(
+                    what + " gives " + actual.length + " values instead of " + expected.length);
+        }
+
+        for (int i = 0; i < actual.length; i++) {
+            if (!actual[i].equals(expected[i])) {
+                throw new IllegalStateException(what + " gives a wrong result at index " + i);
+            }
+        }
+    }
+
+    /**
+     * Throws IllegalStateException unless two polynomials have the same terms.
+     *
+     * @param what     Operation that produced actual, for the message
+     * @param actual   Result under test
+     * @param expected Reference result
+     */
+    public static void same(String what, SparsePolynomial actual, SparsePolynomial expected) {
+        if (actual.terms() != expected.terms() || actual.degree() != expected.degree()) {
+            throw new IllegalStateException(what + " gives a wrong result");
+        }
+
+        DensePolynomial a = actual.toDense(), b = expected.toDense();
+
+        for (int i = 0; i <= a.degree(); i++) {
+            if (a.coefficient(i) != b.coefficient(i)) {
+                throw new IllegalStateException(what + " gives a wrong coefficient at degree " + i);
+            }
+        }
+    }
+
+    /**
+     * Throws IllegalStateException unless every value is within tolerance of
+     * the expected one. Both arrays must be as long.
+     *
+     * @param what      Operation that produced actual, for the message
+     * @param actual    Results under test
+     * @param expected  Reference results
+     * @param tolerance Largest absolute difference allowed, 0 for exact results
+     */
+    public static void close(String what, double[] actual, double[] expected, double tolerance) {
+        if (actual.length != expected.length) {
+            throw new IllegalStateException(
+                    what + " gives " + actual.length + " values instead of " + expected.length);
+        }
+
+        for (int i = 0; i < actual.length; i++) {
+            if (!(Math.abs(actual[i] - expected[i]) <= tolerance)) {
+                throw new IllegalStateException(what + " is off by " + Math.abs(actual[i] - expected[i]) + " at index "
+                        + i + ", more than " + tolerance);
+            }
+        }
+    }
+
+    /**
+     * Throws IllegalStateException unless every value is within its own
+     * tolerance of the expected one. All three arrays must be as long.
+     *
+     * @param what       Operation that produced actual, for the message
+     * @param actual     Results under test
+     * @param expected   Reference results
+     * @param tolerances Largest absolute difference allowed for each value
+     */
+    public static void close(String what, float[] actual, float[] expected, float[] tolerances) {
+        for (int i = 0; i < actual.length; i++) {
+            if (!(Math.abs(actual[i] - expected[i]) <= tolerances[i])) {
+                throw new IllegalStateException(what + " is off by " + Math.abs(actual[i] - expected[i]) + " at index "
+                        + i + ", more than " + tolerances[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the java.math.BigInteger with the value of an integer.
+     */
+    public static java.math.BigInteger reference(BigInteger value) {
+        return new java.math.BigInteger(value.toString());
+    }
+}
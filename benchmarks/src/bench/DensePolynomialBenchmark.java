@@ -0,0 +1,200 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import poly.DensePolynomial;
+import poly.Node;
+import poly.Polynomial;
+
+/**
+ * Adding, multiplying and evaluating large polynomials with about one term in two degrees,
+ * as linked lists and as DensePolynomials.
+ *
+ * Before measuring, multiply is checked against a term-by-term product on each
+ * of its transform paths: small integers through the rounded FFT and large
+ * integers through the NTT, both exactly, and fftMultiply on non-integers within
+ * fftErrorBound. The measured product is checked too when it is small enough.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DensePolynomialBenchmark {
+
+    /**
+     * Coefficients of each operand of the transform checks, above
+     * DensePolynomial's transform threshold
+     */
+    static final int CHECKED_LENGTH = 2000;
+
+    /**
+     * Largest measured operand checked term by term
+     */
+    static final int CHECKED_TERMS = 10000;
+
+    @Param({ "1000", "100000" })
+    public int terms;
+
+    private Node firstList;
+    private Node secondList;
+    private DensePolynomial first;
+    private DensePolynomial second;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(121);
+        firstList = Inputs.polynomial(random, terms);
+        secondList = Inputs.polynomial(random, terms);
+        first = DensePolynomial.fromNodes(firstList);
+        second = DensePolynomial.fromNodes(secondList);
+
+        if (terms <= CHECKED_TERMS) {
+            Checks.close("multiply", coefficients(denseMultiply()),
+                    exactProduct(coefficients(first), coefficients(second)), 0);
+        }
+
+        checkTransforms(random);
+    }
+
+    private static void checkTransforms(Random random) {
+        double[] small = integers(random, 9), small2 = integers(random, 9);
+        double[] large = integers(random, 3000000), large2 = integers(random, 3000000);
+        double[] real = new double[CHECKED_LENGTH], real2 = new double[CHECKED_LENGTH];
+
+        for (int i = 0; i < CHECKED_LENGTH; i++) {
+            real[i] = random.nextGaussian();
+            real2[i] = random.nextGaussian();
+        }
+
+        DensePolynomial a = DensePolynomial.of(small), b = DensePolynomial.of(small2);
+        if (DensePolynomial.fftErrorBound(a, b) >= 0.5) {
+            throw new IllegalStateException("small integers no longer go through the FFT");
+        }
+        Checks.close("FFT multiply", coefficients(DensePolynomial.multiply(a, b)), exactProduct(small, small2), 0);
+
+        a = DensePolynomial.of(large);
+        b = DensePolynomial.of(large2);
+        if (DensePolynomial.fftErrorBound(a, b) < 0.5) {
+            throw new IllegalStateException("large integers no longer go through the NTT");
+        }
+        Checks.close("NTT multiply", coefficients(DensePolynomial.multiply(a, b)), exactProduct(large, large2), 0);
+
+        a = DensePolynomial.of(real);
+        b = DensePolynomial.of(real2);
+        Checks.close("fftMultiply", coefficients(DensePolynomial.fftMultiply(a, b)), accurateProduct(real, real2),
+                DensePolynomial.fftErrorBound(a, b));
+    }
+
+    /**
+     * CHECKED_LENGTH random integers in [-max, max], the last one non-zero
+     */
+    private static double[] integers(Random random, int max) {
+        double[] x = new double[CHECKED_LENGTH];
+
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextInt(2 * max + 1) - max;
+        }
+
+        x[x.length - 1] = max;
+        return x;
+    }
+
+    private static double[] coefficients(DensePolynomial poly) {
+        double[] coeffs = new double[poly.degree() + 1];
+
+        for (int i = 0; i < coeffs.length; i++) {
+            coeffs[i] = poly.coefficient(i);
+        }
+
+        return coeffs;
+    }
+
+    /**
+     * Term-by-term product of integer coefficients, in long arithmetic
+     */
+    private static double[] exactProduct(double[] a, double[] b) {
+        long[] product = new long[a.length + b.length - 1];
+
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                product[i + j] += (long) a[i] * (long) b[j];
+            }
+        }
+
+        double[] result = new double[product.length];
+        for (int k = 0; k < product.length; k++) {
+            result[k] = product[k];
+        }
+
+        return result;
+    }
+
+    /**
+     * Term-by-term product with each term product split into its rounded value
+     * and exact error, summed with Neumaier's compensation, so the reference
+     * is accurate to about one rounding of each coefficient
+     */
+    private static double[] accurateProduct(double[] a, double[] b) {
+        double[] sum = new double[a.length + b.length - 1];
+        double[] compensation = new double[sum.length];
+
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                int k = i + j;
+                double p = a[i] * b[j];
+                double t = sum[k] + p;
+
+                compensation[k] += Math.fma(a[i], b[j], -p)
+                        + (Math.abs(sum[k]) >= Math.abs(p) ? (sum[k] - t) + p : (p - t) + sum[k]);
+                sum[k] = t;
+            }
+        }
+
+        for (int k = 0; k < sum.length; k++) {
+            sum[k] += compensation[k];
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public Node listAdd() {
+        return Polynomial.add(firstList, secondList);
+    }
+
+    @Benchmark
+    public DensePolynomial denseAdd() {
+        return DensePolynomial.add(first, second);
+    }
+
+    @Benchmark
+    public DensePolynomial denseMultiply() {
+        return DensePolynomial.multiply(first, second);
+    }
+
+    @Benchmark
+    public float listEvaluate() {
+        return Polynomial.evaluate(firstList, 0.999f);
+    }
+
+    @Benchmark
+    public double denseEvaluate() {
+        return first.evaluate(0.999);
+    }
+}
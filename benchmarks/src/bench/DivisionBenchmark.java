@@ -0,0 +1,138 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+import bigint.Divider;
+
+/**
+ * Division of a 2n-digit dividend by an n-digit divisor, by Knuth's algorithm
+ * and by Burnikel-Ziegler, and modPow with exponent and modulus of the same
+ * size, on the operand sizes our workloads use. java.math.BigInteger is timed
+ * on the same operands as a reference.
+ *
+ * Every result is checked against java.math.BigInteger before measuring.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DivisionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Division {
+
+        @Param({ "1000", "10000", "50000", "200000" })
+        public int digits;
+
+        BigInteger dividend;
+        BigInteger divisor;
+        java.math.BigInteger referenceDividend;
+        java.math.BigInteger referenceDivisor;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(112);
+            dividend = BigInteger.parse(Inputs.digits(random, 2 * digits));
+            divisor = BigInteger.parse(Inputs.digits(random, digits));
+            referenceDividend = Checks.reference(dividend);
+            referenceDivisor = Checks.reference(divisor);
+
+            java.math.BigInteger expected = referenceDividend.divide(referenceDivisor);
+            int threshold = Divider.BURNIKEL_ZIEGLER_THRESHOLD;
+            Divider.BURNIKEL_ZIEGLER_THRESHOLD = Integer.MAX_VALUE;
+            Checks.same("Knuth division", BigInteger.divide(dividend, divisor), expected);
+            Divider.BURNIKEL_ZIEGLER_THRESHOLD = threshold;
+            Checks.same("divide", BigInteger.divide(dividend, divisor), expected);
+        }
+    }
+
+    /**
+     * Forces Knuth's algorithm at every size for the benchmark that uses it
+     */
+    @State(Scope.Benchmark)
+    public static class Knuth {
+
+        private int threshold;
+
+        @Setup
+        public void setup() {
+            threshold = Divider.BURNIKEL_ZIEGLER_THRESHOLD;
+            Divider.BURNIKEL_ZIEGLER_THRESHOLD = Integer.MAX_VALUE;
+        }
+
+        @TearDown
+        public void tearDown() {
+            Divider.BURNIKEL_ZIEGLER_THRESHOLD = threshold;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ModPow {
+
+        @Param({ "4096", "8192", "16384" })
+        public int bits;
+
+        BigInteger base;
+        BigInteger exponent;
+        BigInteger modulus;
+        java.math.BigInteger referenceBase;
+        java.math.BigInteger referenceExponent;
+        java.math.BigInteger referenceModulus;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(112);
+            referenceModulus = new java.math.BigInteger(bits, random).setBit(bits - 1);
+            referenceExponent = new java.math.BigInteger(bits, random);
+            referenceBase = new java.math.BigInteger(bits, random);
+            modulus = BigInteger.parse(referenceModulus.toString());
+            exponent = BigInteger.parse(referenceExponent.toString());
+            base = BigInteger.parse(referenceBase.toString());
+
+            Checks.same("modPow", BigInteger.modPow(base, exponent, modulus),
+                    referenceBase.modPow(referenceExponent, referenceModulus));
+        }
+    }
+
+    @Benchmark
+    public BigInteger divideKnuth(Division division, Knuth knuth) {
+        return BigInteger.divide(division.dividend, division.divisor);
+    }
+
+    @Benchmark
+    public BigInteger divideBurnikelZiegler(Division division) {
+        return BigInteger.divide(division.dividend, division.divisor);
+    }
+
+    @Benchmark
+    public java.math.BigInteger divideJavaMath(Division division) {
+        return division.referenceDividend.divide(division.referenceDivisor);
+    }
+
+    @Benchmark
+    public BigInteger modPow(ModPow state) {
+        return BigInteger.modPow(state.base, state.exponent, state.modulus);
+    }
+
+    @Benchmark
+    public java.math.BigInteger modPowJavaMath(ModPow state) {
+        return state.referenceBase.modPow(state.referenceExponent, state.referenceModulus);
+    }
+}
@@ -0,0 +1,101 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import poly.DensePolynomial;
+import poly.Node;
+import poly.Polynomial;
+
+/**
+ * Evaluating one polynomial at a million values: one Polynomial.evaluate call
+ * per value, against the batch Polynomial.evaluate with scalar and with Vector
+ * API kernels, in separate forks.
+ *
+ * Before measuring, each fork checks that the batch agrees with one call per
+ * value. The single-value evaluate rounds each partial sum to float, so the two
+ * may differ by a rounding of the running sum per term: terms float ulps of
+ * the sum of the terms' absolute values.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class EvaluateBenchmark {
+
+    static final String VECTOR = "--add-modules=jdk.incubator.vector";
+    static final String SCALAR = "-Dpoly.vector=false";
+
+    @Param({ "10", "100" })
+    public int terms;
+
+    private Node poly;
+    private float[] xs;
+    private float[] out;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(125);
+        poly = Inputs.polynomial(random, terms);
+        xs = new float[1 << 20];
+        out = new float[xs.length];
+
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = random.nextFloat() * 2 - 1;
+        }
+
+        DensePolynomial dense = DensePolynomial.fromNodes(poly);
+        double[] absolute = new double[dense.degree() + 1];
+        for (int i = 0; i < absolute.length; i++) {
+            absolute[i] = Math.abs(dense.coefficient(i));
+        }
+        DensePolynomial magnitude = DensePolynomial.of(absolute);
+
+        float[] tolerances = new float[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            tolerances[i] = terms * Math.ulp((float) magnitude.evaluate(Math.abs(xs[i])));
+        }
+
+        float[] batch = new float[xs.length];
+        Polynomial.evaluate(poly, xs, batch);
+        Checks.close("batch evaluate", batch, perValue(), tolerances);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public float[] perValue() {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Polynomial.evaluate(poly, xs[i]);
+        }
+
+        return out;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public float[] batchScalar() {
+        Polynomial.evaluate(poly, xs, out);
+        return out;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR)
+    public float[] batchVector() {
+        Polynomial.evaluate(poly, xs, out);
+        return out;
+    }
+}
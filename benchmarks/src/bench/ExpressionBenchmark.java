@@ -0,0 +1,60 @@
+package bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.app.Array;
+import src.app.Expression;
+import src.app.Variable;
+
+/**
+ * Evaluation of generated expressions over scalar variables, array elements
+ * and nested parentheses. The variant of Expression being measured is chosen
+ * when Express_Eval is built (see its pom.xml).
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int operands;
+
+    private String expr;
+    private ArrayList<Variable> vars;
+    private ArrayList<Array> arrays;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(112);
+        expr = Inputs.expression(random, operands);
+        vars = new ArrayList<>();
+        arrays = new ArrayList<>();
+        Expression.makeVariableLists(expr, vars, arrays);
+        Expression.loadVariableValues(new Scanner(Inputs.variableValues(random)), vars, arrays);
+    }
+
+    @Benchmark
+    public float evaluate() {
+        return Expression.evaluate(expr, vars, arrays);
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import friends.Friends;
+import friends.Graph;
+
+/**
+ * Friendship graph queries on generated graphs with an average of about four
+ * friends per person, spread over ten schools.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FriendsBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int people;
+
+    private Graph graph;
+
+    @Setup
+    public void setup() {
+        String text = Inputs.friends(new Random(112), people, 10, people);
+        graph = new Graph(new Scanner(text));
+    }
+
+    @Benchmark
+    public ArrayList<String> shortestChain() {
+        return Friends.shortestChain(graph, "p0", "p" + (people - 1));
+    }
+
+    @Benchmark
+    public ArrayList<ArrayList<String>> cliques() {
+        return Friends.cliques(graph, "school0");
+    }
+
+    @Benchmark
+    public ArrayList<String> connectors() {
+        return Friends.connectors(graph);
+    }
+}
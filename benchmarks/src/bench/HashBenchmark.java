@@ -0,0 +1,79 @@
+package bench;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+
+/**
+ * Deduplicating a column of integers in which every value occurs about four
+ * times, through a HashSet and through a TreeSet.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashBenchmark {
+
+    @Param({ "20", "200" })
+    public int digits;
+
+    private BigInteger[] values;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(119);
+        BigInteger[] distinct = new BigInteger[1 << 16];
+
+        for (int i = 0; i < distinct.length; i++) {
+            distinct[i] = BigInteger.parse((random.nextBoolean() ? "-" : "") + Inputs.digits(random, digits));
+        }
+
+        values = new BigInteger[4 * distinct.length];
+
+        for (int i = 0; i < values.length; i++) {
+            // separate instances, so equals has to compare limbs
+            values[i] = BigInteger.parse(distinct[random.nextInt(distinct.length)].toString());
+        }
+    }
+
+    @Benchmark
+    public int hashSet() {
+        Set<BigInteger> seen = new HashSet<>();
+
+        for (BigInteger value : values) {
+            seen.add(value);
+        }
+
+        return seen.size();
+    }
+
+    @Benchmark
+    public int treeSet() {
+        Set<BigInteger> seen = new TreeSet<>();
+
+        for (BigInteger value : values) {
+            seen.add(value);
+        }
+
+        return seen.size();
+    }
+}
@@ -0,0 +1,243 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import poly.Node;
+
+/**
+ * This class generates synthetic inputs for the benchmarks, in the same formats
+ * as the sample files that ship with each assignment. Every generator takes its
+ * own Random, so a fixed seed always gives the same input.
+ *
+ */
+public class Inputs {
+
+    private Inputs() {
+    }
+
+    /**
+     * Returns a decimal integer with exactly the given number of digits.
+     */
+    public static String digits(Random random, int count) {
+        char[] digits = new char[count];
+        digits[0] = (char) ('1' + random.nextInt(9));
+
+        for (int i = 1; i < count; i++) {
+            digits[i] = (char) ('0' + random.nextInt(10));
+        }
+
+        return new String(digits);
+    }
+
+    /**
+     * Returns a polynomial with the given number of non-zero integer
+     * coefficients, lowest degree first as Polynomial.read builds it. Degrees
+     * grow by 1 to 3 from term to term.
+     */
+    public static Node polynomial(Random random, int terms) {
+        return polynomial(random, terms, 3);
+    }
+
+    /**
+     * Returns a polynomial like polynomial(random, terms), with degrees that
+     * grow by 1 to maxGap from term to term.
+     */
+    public static Node polynomial(Random random, int terms, int maxGap) {
+        int[] degrees = new int[terms];
+
+        for (int i = 1; i < terms; i++) {
+            degrees[i] = degrees[i - 1] + 1 + random.nextInt(maxGap);
+        }
+
+        Node poly = null;
+
+        for (int i = terms - 1; i >= 0; i--) {
+            int coeff = 1 + random.nextInt(9);
+            poly = new Node(random.nextBoolean() ? coeff : -coeff, degrees[i], poly);
+        }
+
+        return poly;
+    }
+
+    /**
+     * Returns distinct lower case words of 3 to 10 letters, none of which is a
+     * prefix of another (Trie.buildTrie requires that). Letters are drawn from a
+     * skewed distribution, so the words share prefixes like real text.
+     */
+    public static String[] words(Random random, int count) {
+        Set<String> words = new LinkedHashSet<>();
+        TreeSet<String> sorted = new TreeSet<>();
+
+        while (words.size() < count) {
+            int length = 3 + random.nextInt(8);
+            StringBuilder word = new StringBuilder(length);
+
+            for (int i = 0; i < length; i++) {
+                word.append(letter(random));
+            }
+
+            // in a prefix-free set, a prefix of w is the word just before it
+            String w = word.toString();
+            String before = sorted.floor(w);
+            String after = sorted.ceiling(w);
+
+            if ((before == null || !w.startsWith(before)) && (after == null || !after.startsWith(w))) {
+                sorted.add(w);
+                words.add(w);
+            }
+        }
+
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Writes documents of words drawn from the vocabulary with a Zipf-like
+     * distribution, some followed by punctuation, together with a file listing
+     * them and a noise word file holding the most frequent words.
+     *
+     * @return { docs file, noise words file }, as absolute paths
+     */
+    public static String[] documents(Random random, Path dir, int documents, int wordsPerDocument,
+            String[] vocabulary) throws IOException {
+        List<String> names = new ArrayList<>();
+        String[] punctuation = { "", "", "", "", ".", ",", "!", "?", ";", ":" };
+
+        for (int d = 0; d < documents; d++) {
+            StringBuilder text = new StringBuilder();
+
+            for (int w = 0; w < wordsPerDocument; w++) {
+                text.append(vocabulary[zipf(random, vocabulary.length)]);
+                text.append(punctuation[random.nextInt(punctuation.length)]);
+                text.append(w % 12 == 11 ? '\n' : ' ');
+            }
+
+            Path doc = dir.resolve("doc" + d + ".txt");
+            Files.writeString(doc, text);
+            names.add(doc.toAbsolutePath().toString());
+        }
+
+        Path docs = dir.resolve("docs.txt");
+        Files.write(docs, names);
+
+        Path noise = dir.resolve("noisewords.txt");
+        Files.write(noise, List.of(vocabulary).subList(0, Math.min(20, vocabulary.length)));
+
+        return new String[] { docs.toAbsolutePath().toString(), noise.toAbsolutePath().toString() };
+    }
+
+    /**
+     * Returns a friendship graph in the format read by friends.Graph: people p0 ..
+     * p(n-1), about two thirds of them students spread over the given number of
+     * schools, with a chain through everyone plus random extra friendships.
+     */
+    public static String friends(Random random, int people, int schools, int extraFriendships) {
+        StringBuilder graph = new StringBuilder();
+        graph.append(people).append('\n');
+
+        for (int i = 0; i < people; i++) {
+            graph.append('p').append(i);
+
+            if (random.nextInt(3) > 0) {
+                graph.append("|y|school").append(random.nextInt(schools));
+            } else {
+                graph.append("|n");
+            }
+
+            graph.append('\n');
+        }
+
+        for (int i = 1; i < people; i++) {
+            graph.append('p').append(i - 1).append("|p").append(i).append('\n');
+        }
+
+        for (int e = 0; e < extraFriendships; e++) {
+            int a = random.nextInt(people), b = random.nextInt(people);
+
+            if (Math.abs(a - b) > 1) {
+                graph.append('p').append(a).append("|p").append(b).append('\n');
+            }
+        }
+
+        return graph.toString();
+    }
+
+    /**
+     * Returns an expression with the given number of operands for
+     * app.Expression: integer literals, scalar variables a .. e, array elements
+     * A[i] .. E[i] with 0 <= i < 10, and parenthesised sub-expressions.
+     */
+    public static String expression(Random random, int operands) {
+        StringBuilder expr = new StringBuilder();
+        appendExpression(random, operands, 0, expr);
+        return expr.toString();
+    }
+
+    /**
+     * Returns variable values for expression(), in the format read by
+     * Expression.loadVariableValues.
+     */
+    public static String variableValues(Random random) {
+        StringBuilder values = new StringBuilder();
+
+        for (char name = 'a'; name <= 'e'; name++) {
+            values.append(name).append(' ').append(1 + random.nextInt(9)).append('\n');
+        }
+
+        for (char name = 'A'; name <= 'E'; name++) {
+            values.append(name).append(" 10");
+
+            for (int i = 0; i < 10; i++) {
+                values.append(" (").append(i).append(',').append(1 + random.nextInt(9)).append(')');
+            }
+
+            values.append('\n');
+        }
+
+        return values.toString();
+    }
+
+    private static void appendExpression(Random random, int operands, int depth, StringBuilder expr) {
+        String ops = "+-*/";
+
+        for (int i = 0; i < operands; i++) {
+            if (i > 0) {
+                expr.append(' ').append(ops.charAt(random.nextInt(ops.length()))).append(' ');
+            }
+
+            int kind = random.nextInt(10);
+
+            if (kind < 4) {
+                expr.append(1 + random.nextInt(9));
+            } else if (kind < 7) {
+                expr.append((char) ('a' + random.nextInt(5)));
+            } else if (kind < 9 || depth >= 4) {
+                expr.append((char) ('A' + random.nextInt(5))).append('[').append(random.nextInt(10)).append(']');
+            } else {
+                expr.append('(');
+                appendExpression(random, 2 + random.nextInt(3), depth + 1, expr);
+                expr.append(')');
+            }
+        }
+    }
+
+    /**
+     * Index in [0, n) with a probability roughly proportional to 1 / (index + 1).
+     */
+    private static int zipf(Random random, int n) {
+        return (int) Math.min(n - 1, Math.exp(random.nextDouble() * Math.log(n + 1)) - 1);
+    }
+
+    private static char letter(Random random) {
+        // squaring the uniform draw favours the start of the alphabet
+        double u = random.nextDouble();
+        return (char) ('a' + (int) (u * u * 26));
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+
+/**
+ * Scalar against Vector API limb kernels. Each pair of benchmarks runs the
+ * same BigInteger call in two forks, one with jdk.incubator.vector and one
+ * with the kernels forced to scalar. subtractNearlyEqual subtracts x from x + 1,
+ * so the comparison that picks the larger magnitude scans every limb.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class LimbKernelBenchmark {
+
+    static final String VECTOR = "--add-modules=jdk.incubator.vector";
+    static final String SCALAR = "-Dbigint.vector=false";
+
+    @Param({ "1000", "100000", "1000000" })
+    public int digits;
+
+    private BigInteger first;
+    private BigInteger second;
+    private BigInteger firstPlusOne;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        first = BigInteger.parse(Inputs.digits(random, digits));
+        second = BigInteger.parse(Inputs.digits(random, digits));
+        firstPlusOne = BigInteger.add(first, BigInteger.parse("1"));
+
+        // runs in each fork, so it checks whichever kernels the fork uses
+        java.math.BigInteger referenceFirst = Checks.reference(first);
+        java.math.BigInteger referenceSecond = Checks.reference(second);
+        Checks.same("add", BigInteger.add(first, second), referenceFirst.add(referenceSecond));
+        Checks.same("subtract", BigInteger.subtract(first, second), referenceFirst.subtract(referenceSecond));
+        Checks.same("subtract", BigInteger.subtract(firstPlusOne, first), java.math.BigInteger.ONE);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public BigInteger addScalar() {
+        return BigInteger.add(first, second);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR)
+    public BigInteger addVector() {
+        return BigInteger.add(first, second);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public BigInteger subtractScalar() {
+        return BigInteger.subtract(first, second);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR)
+    public BigInteger subtractVector() {
+        return BigInteger.subtract(first, second);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCALAR)
+    public BigInteger subtractNearlyEqualScalar() {
+        return BigInteger.subtract(firstPlusOne, first);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = VECTOR)
+    public BigInteger subtractNearlyEqualVector() {
+        return BigInteger.subtract(firstPlusOne, first);
+    }
+}
@@ -0,0 +1,116 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+import bigint.Multiplier;
+
+/**
+ * Schoolbook, Karatsuba, Toom-3 and NTT multiplication over a range of operand
+ * sizes, to show where each algorithm starts to win so the thresholds in
+ * Multiplier can be tuned for the machine at hand. The algorithm parameter
+ * forces the top-level algorithm; sub-products use the default thresholds.
+ * Divided by n log2 n (n = limbs), the NTT scores should stay roughly flat as
+ * the operands grow.
+ *
+ * Before measuring, the forced algorithm is checked against the schoolbook
+ * product on the measured operands and on a few more random pairs of the same
+ * size.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiplyBenchmark {
+
+    /**
+     * Decimal digits per BigInteger limb
+     */
+    static final int LIMB_DIGITS = 9;
+
+    static final List<String> ALGORITHMS = Arrays.asList("schoolbook", "karatsuba", "toom-3", "ntt");
+
+    /**
+     * Random pairs checked against the schoolbook product, besides the measured
+     * one
+     */
+    static final int CHECKED_PAIRS = 4;
+
+    @Param({ "100", "1000", "10000", "100000" })
+    public int digits;
+
+    @Param({ "schoolbook", "karatsuba", "toom-3", "ntt" })
+    public String algorithm;
+
+    private BigInteger first;
+    private BigInteger second;
+
+    private final int karatsuba = Multiplier.KARATSUBA_THRESHOLD;
+    private final int toom3 = Multiplier.TOOM3_THRESHOLD;
+    private final int ntt = Multiplier.NTT_THRESHOLD;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        first = BigInteger.parse(Inputs.digits(random, digits));
+        second = BigInteger.parse(Inputs.digits(random, digits));
+        check(first, second);
+
+        for (int i = 0; i < CHECKED_PAIRS; i++) {
+            check(BigInteger.parse(Inputs.digits(random, digits)), BigInteger.parse(Inputs.digits(random, digits)));
+        }
+
+        force(algorithm);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Multiplier.KARATSUBA_THRESHOLD = karatsuba;
+        Multiplier.TOOM3_THRESHOLD = toom3;
+        Multiplier.NTT_THRESHOLD = ntt;
+    }
+
+    @Benchmark
+    public BigInteger multiply() {
+        return BigInteger.multiply(first, second);
+    }
+
+    private void check(BigInteger x, BigInteger y) {
+        force("schoolbook");
+        BigInteger expected = BigInteger.multiply(x, y);
+        force(algorithm);
+        Checks.same(algorithm, BigInteger.multiply(x, y), expected);
+    }
+
+    /**
+     * Sets the thresholds so that products of operands of the measured size use
+     * the algorithm at the top level.
+     */
+    private void force(String algorithm) {
+        int level = ALGORITHMS.indexOf(algorithm);
+        int limbs = (digits + LIMB_DIGITS - 1) / LIMB_DIGITS;
+
+        Multiplier.KARATSUBA_THRESHOLD = level < 1 ? Integer.MAX_VALUE : Math.min(karatsuba, limbs);
+        Multiplier.TOOM3_THRESHOLD = level < 2 ? Integer.MAX_VALUE : Math.min(toom3, limbs);
+        Multiplier.NTT_THRESHOLD = level < 3 ? Integer.MAX_VALUE : Math.min(ntt, limbs);
+    }
+}
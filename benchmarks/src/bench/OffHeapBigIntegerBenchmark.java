@@ -0,0 +1,106 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+import bigint.OffHeapArena;
+import bigint.OffHeapBigInteger;
+
+/**
+ * Off-heap arithmetic next to the same operations on heap BigIntegers. Results
+ * go to a scratch arena that is closed after every iteration. Run with -prof gc
+ * to compare allocation rates.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OffHeapBigIntegerBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int digits;
+
+    private BigInteger first;
+    private BigInteger second;
+
+    private OffHeapArena operands;
+    private OffHeapArena results;
+    private OffHeapBigInteger offHeapFirst;
+    private OffHeapBigInteger offHeapSecond;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        first = BigInteger.parse(Inputs.digits(random, digits));
+        second = BigInteger.parse(Inputs.digits(random, digits));
+
+        operands = new OffHeapArena();
+        offHeapFirst = OffHeapBigInteger.copyOf(first, operands);
+        offHeapSecond = OffHeapBigInteger.copyOf(second, operands);
+
+        try (OffHeapArena scratch = new OffHeapArena()) {
+            Checks.same("off-heap add", OffHeapBigInteger.add(offHeapFirst, offHeapSecond, scratch).toBigInteger(),
+                    heapAdd());
+            Checks.same("off-heap multiply",
+                    OffHeapBigInteger.multiply(offHeapFirst, offHeapSecond, scratch).toBigInteger(), heapMultiply());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openResults() {
+        results = new OffHeapArena();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeResults() {
+        results.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        operands.close();
+    }
+
+    @Benchmark
+    public BigInteger heapAdd() {
+        return BigInteger.add(first, second);
+    }
+
+    @Benchmark
+    public OffHeapBigInteger offHeapAdd() {
+        return OffHeapBigInteger.add(offHeapFirst, offHeapSecond, results);
+    }
+
+    @Benchmark
+    public BigInteger heapMultiply() {
+        return BigInteger.multiply(first, second);
+    }
+
+    @Benchmark
+    public OffHeapBigInteger offHeapMultiply() {
+        return OffHeapBigInteger.multiply(offHeapFirst, offHeapSecond, results);
+    }
+
+    @Benchmark
+    public int offHeapCompare() {
+        return OffHeapBigInteger.compare(offHeapFirst, offHeapSecond);
+    }
+}
@@ -0,0 +1,69 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+
+/**
+ * How BigInteger.parallelMultiply scales with the number of threads, for
+ * operand sizes that exercise Karatsuba, Toom-3 and the NTT at the top level.
+ * The speedup on n threads is the score for threads=1 over the score for
+ * threads=n; run with -p threads=... to go up to every core of the machine.
+ *
+ * The parallel product is checked against BigInteger.multiply before
+ * measuring.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelMultiplyBenchmark {
+
+    @Param({ "20000", "100000", "1000000", "10000000" })
+    public int digits;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private BigInteger first;
+    private BigInteger second;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        first = BigInteger.parse(Inputs.digits(random, digits));
+        second = BigInteger.parse(Inputs.digits(random, digits));
+        pool = new ForkJoinPool(threads);
+
+        Checks.same("parallelMultiply", parallelMultiply(), BigInteger.multiply(first, second));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BigInteger parallelMultiply() {
+        return BigInteger.parallelMultiply(first, second, pool);
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import poly.Node;
+import poly.Polynomial;
+
+/**
+ * Polynomial arithmetic on linked lists of random terms, about one every two
+ * degrees, so that multiplication goes through the dense path.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PolynomialBenchmark {
+
+    @Param({ "10", "50", "200", "1000" })
+    public int terms;
+
+    private Node first;
+    private Node second;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(112);
+        first = Inputs.polynomial(random, terms);
+        second = Inputs.polynomial(random, terms);
+    }
+
+    @Benchmark
+    public Node add() {
+        return Polynomial.add(first, second);
+    }
+
+    @Benchmark
+    public Node multiply() {
+        return Polynomial.multiply(first, second);
+    }
+
+    @Benchmark
+    public float evaluate() {
+        return Polynomial.evaluate(first, 0.999f);
+    }
+}
@@ -0,0 +1,98 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+import bigint.ProductTree;
+
+/**
+ * n! folded one factor at a time through BigInteger.multiply, against the
+ * balanced product of 1 .. n and the prime swing factorial, sequential and on
+ * the common pool, and the central binomial coefficient. Folding is quadratic,
+ * so each iteration is a single call.
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductTreeBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int n;
+
+    /**
+     * Largest n whose fold is also checked, since folding is slow
+     */
+    private static final int CHECKED_FOLD = 10000;
+
+    private List<BigInteger> factors;
+
+    @Setup
+    public void setup() {
+        factors = new ArrayList<>(n);
+
+        for (int i = 1; i <= n; i++) {
+            factors.add(BigInteger.parse(Integer.toString(i)));
+        }
+
+        BigInteger expected = balancedProduct();
+        if (n <= CHECKED_FOLD) {
+            Checks.same("product tree", expected, foldFactorial());
+        }
+        Checks.same("factorial", factorial(), expected);
+        Checks.same("parallel factorial", parallelFactorial(), expected);
+
+        // C(n, n/2) * (n/2)! * (n - n/2)! = n!
+        Checks.same("binomial", BigInteger.multiply(binomial(),
+                BigInteger.multiply(ProductTree.factorial(n / 2), ProductTree.factorial(n - n / 2))), expected);
+    }
+
+    @Benchmark
+    public BigInteger foldFactorial() {
+        BigInteger product = factors.get(0);
+
+        for (int i = 1; i < factors.size(); i++) {
+            product = BigInteger.multiply(product, factors.get(i));
+        }
+
+        return product;
+    }
+
+    @Benchmark
+    public BigInteger balancedProduct() {
+        return ProductTree.product(factors);
+    }
+
+    @Benchmark
+    public BigInteger factorial() {
+        return ProductTree.factorial(n);
+    }
+
+    @Benchmark
+    public BigInteger parallelFactorial() {
+        return ProductTree.factorial(n, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public BigInteger binomial() {
+        return ProductTree.binomial(n, n / 2);
+    }
+}
@@ -0,0 +1,86 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import lse.LittleSearchEngine;
+
+/**
+ * Indexing and searching generated documents of 2000 words each, drawn from a
+ * 5000-word vocabulary. The documents are written to a temporary directory that
+ * is removed after the run.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchEngineBenchmark {
+
+    static final int WORDS_PER_DOCUMENT = 2000;
+    static final int VOCABULARY = 5000;
+
+    @Param({ "10", "100" })
+    public int documents;
+
+    private Path dir;
+    private String docsFile;
+    private String noiseWordsFile;
+    private String[] vocabulary;
+    private LittleSearchEngine engine;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(112);
+        vocabulary = Inputs.words(random, VOCABULARY);
+        dir = Files.createTempDirectory("lse");
+
+        String[] files = Inputs.documents(random, dir, documents, WORDS_PER_DOCUMENT, vocabulary);
+        docsFile = files[0];
+        noiseWordsFile = files[1];
+
+        engine = new LittleSearchEngine();
+        engine.makeIndex(docsFile, noiseWordsFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public LittleSearchEngine makeIndex() throws IOException {
+        LittleSearchEngine index = new LittleSearchEngine();
+        index.makeIndex(docsFile, noiseWordsFile);
+        return index;
+    }
+
+    @Benchmark
+    public ArrayList<String> top5search() {
+        // the most frequent words that are not noise words
+        return engine.top5search(vocabulary[20], vocabulary[21]);
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+
+/**
+ * Small counters next to a large value: creating small values, and adding or
+ * multiplying the large value by zero and one, which return without copying.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmallValueBenchmark {
+
+    private BigInteger large;
+    private long counter;
+
+    @Setup
+    public void setup() {
+        large = BigInteger.parse(Inputs.digits(new Random(112), 100000));
+    }
+
+    @Benchmark
+    public BigInteger valueOf() {
+        return BigInteger.valueOf(counter++ & 1023);
+    }
+
+    @Benchmark
+    public BigInteger parseSmall() {
+        return BigInteger.parse("42");
+    }
+
+    @Benchmark
+    public BigInteger addZero() {
+        return BigInteger.add(large, BigInteger.ZERO);
+    }
+
+    @Benchmark
+    public BigInteger multiplyOne() {
+        return BigInteger.multiply(large, BigInteger.ONE);
+    }
+}
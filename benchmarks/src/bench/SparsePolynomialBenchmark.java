@@ -0,0 +1,74 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import poly.Node;
+import poly.Polynomial;
+import poly.SparsePolynomial;
+
+/**
+ * Adding and multiplying polynomials whose degrees are on average 500 apart,
+ * as linked lists and as SparsePolynomials.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SparsePolynomialBenchmark {
+
+    @Param({ "50", "200", "1000" })
+    public int terms;
+
+    private Node firstList;
+    private Node secondList;
+    private SparsePolynomial first;
+    private SparsePolynomial second;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(122);
+        firstList = Inputs.polynomial(random, terms, 1000);
+        secondList = Inputs.polynomial(random, terms, 1000);
+        first = SparsePolynomial.fromNodes(firstList);
+        second = SparsePolynomial.fromNodes(secondList);
+
+        Checks.same("sparse add", sparseAdd(), SparsePolynomial.fromNodes(listAdd()));
+        Checks.same("sparse multiply", sparseMultiply(), SparsePolynomial.fromNodes(listMultiply()));
+    }
+
+    @Benchmark
+    public Node listAdd() {
+        return Polynomial.add(firstList, secondList);
+    }
+
+    @Benchmark
+    public SparsePolynomial sparseAdd() {
+        return SparsePolynomial.add(first, second);
+    }
+
+    @Benchmark
+    public Node listMultiply() {
+        return Polynomial.multiply(firstList, secondList);
+    }
+
+    @Benchmark
+    public SparsePolynomial sparseMultiply() {
+        return SparsePolynomial.multiply(first, second);
+    }
+}
@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bigint.BigInteger;
+
+/**
+ * BigInteger.square against multiplying two distinct copies of the same
+ * value, which takes the general path, at sizes that reach schoolbook,
+ * Toom-3 and the NTT. Also times pow with a small base.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SquareBenchmark {
+
+    @Param({ "300", "30000", "1000000" })
+    public int digits;
+
+    /**
+     * Largest size also checked against java.math, whose decimal conversions
+     * are quadratic
+     */
+    private static final int CHECKED_DIGITS = 30000;
+
+    private BigInteger value;
+    private BigInteger copy;
+    private BigInteger base;
+
+    @Setup
+    public void setup() {
+        String text = Inputs.digits(new Random(112), digits);
+        value = BigInteger.parse(text);
+        copy = BigInteger.parse(text);
+        base = BigInteger.parse("7");
+
+        Checks.same("square", square(), multiplyCopy());
+        if (digits <= CHECKED_DIGITS) {
+            Checks.same("square", square(), Checks.reference(value).pow(2));
+            Checks.same("pow", pow(), java.math.BigInteger.valueOf(7).pow(exponent()));
+        }
+    }
+
+    @Benchmark
+    public BigInteger square() {
+        return BigInteger.square(value);
+    }
+
+    @Benchmark
+    public BigInteger multiplyCopy() {
+        return BigInteger.multiply(value, copy);
+    }
+
+    /**
+     * 7^e with about as many digits as the other operands' products
+     */
+    @Benchmark
+    public BigInteger pow() {
+        return BigInteger.pow(base, exponent());
+    }
+
+    private int exponent() {
+        return (int) (2 * digits / Math.log10(7));
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trie.Trie;
+import trie.TrieNode;
+
+/**
+ * Building a compressed trie of generated words and listing the completions of
+ * a short prefix.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrieBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int words;
+
+    private String[] allWords;
+    private TrieNode root;
+
+    @Setup
+    public void setup() {
+        allWords = Inputs.words(new Random(112), words);
+        root = Trie.buildTrie(allWords);
+    }
+
+    @Benchmark
+    public TrieNode buildTrie() {
+        return Trie.buildTrie(allWords);
+    }
+
+    @Benchmark
+    public ArrayList<TrieNode> completionList() {
+        return Trie.completionList(root, allWords, "ab");
+    }
+}